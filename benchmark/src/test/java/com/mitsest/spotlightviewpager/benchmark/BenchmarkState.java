@@ -0,0 +1,132 @@
+package com.mitsest.spotlightviewpager.benchmark;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Times the part of a loop between {@link #begin()} and {@link #end()}, after a few warm up runs:
+ * <pre>
+ * final BenchmarkState state = new BenchmarkState("name");
+ * while (state.keepRunning()) {
+ *     // setup, not timed
+ *     state.begin();
+ *     // measured code
+ *     state.end();
+ * }
+ * state.report();
+ * </pre>
+ * Results are printed as "benchmark name: median X us, min Y us, max Z us", the median is the one to compare in review.
+ * <p>
+ * Medians are checked against the baseline file given by the "benchmark.baseline" system property: a benchmark fails
+ * if its median is more than {@link #THRESHOLD} times its baseline and more than {@link #NOISE_MICROS} over it. Benchmarks
+ * missing from the file are only printed.
+ * Running with -Dbenchmark.record=true (-Pbenchmark.record=true through Gradle) writes the medians to the file instead, as the new baseline.
+ */
+class BenchmarkState {
+    private static final int WARM_UP = 10;
+    private static final int ITERATIONS = 50;
+    static final float THRESHOLD = 1.5f;
+    // Below this, a median is scheduling noise rather than a regression
+    static final long NOISE_MICROS = 500;
+
+    @Nullable private static Properties baseline;
+
+    @NonNull private final String name;
+    @NonNull private final long[] durations = new long[ITERATIONS];
+    private int iteration = -1;
+    private long start;
+
+    BenchmarkState(@NonNull String name) {
+        this.name = name;
+    }
+
+    boolean keepRunning() {
+        iteration++;
+        return iteration < WARM_UP + ITERATIONS;
+    }
+
+    void begin() {
+        start = System.nanoTime();
+    }
+
+    void end() {
+        final long duration = System.nanoTime() - start;
+
+        if (iteration >= WARM_UP) {
+            durations[iteration - WARM_UP] = duration;
+        }
+    }
+
+    long report() {
+        Arrays.sort(durations);
+
+        final long median = durations[ITERATIONS / 2];
+        System.out.println(String.format(Locale.US, "benchmark %s: median %d us, min %d us, max %d us",
+                name, median / 1000, durations[0] / 1000, durations[ITERATIONS - 1] / 1000));
+
+        checkBaseline(median / 1000);
+        return median;
+    }
+
+    private void checkBaseline(long medianMicros) {
+        final String path = System.getProperty("benchmark.baseline");
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+
+        final Properties baseline = getBaseline(new File(path));
+
+        if (Boolean.getBoolean("benchmark.record")) {
+            baseline.setProperty(name, Long.toString(medianMicros));
+            storeBaseline(baseline, new File(path));
+            return;
+        }
+
+        final String recorded = baseline.getProperty(name);
+        if (recorded == null) {
+            return;
+        }
+
+        final long baselineMicros = Long.parseLong(recorded);
+        final long limit = Math.max((long) (baselineMicros * THRESHOLD), baselineMicros + NOISE_MICROS);
+        assertTrue(String.format(Locale.US, "benchmark %s: median %d us is over %d us, its baseline is %s us",
+                name, medianMicros, limit, recorded), medianMicros <= limit);
+    }
+
+    @NonNull
+    private static synchronized Properties getBaseline(@NonNull File file) {
+        if (baseline == null) {
+            baseline = new Properties();
+
+            if (file.exists()) {
+                try (InputStream in = new FileInputStream(file)) {
+                    baseline.load(in);
+                } catch (IOException e) {
+                    throw new IllegalStateException("can't read benchmark baseline " + file, e);
+                }
+            }
+        }
+
+        return baseline;
+    }
+
+    private static synchronized void storeBaseline(@NonNull Properties baseline, @NonNull File file) {
+        try (OutputStream out = new FileOutputStream(file)) {
+            baseline.store(out, "Benchmark medians in us, see BenchmarkState. Record with -Pbenchmark.record=true");
+        } catch (IOException e) {
+            throw new IllegalStateException("can't write benchmark baseline " + file, e);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.mitsest.spotlightviewpager.benchmark;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import com.mitsest.spotlightviewpager.animation.OffsetDelegate;
+import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
+import com.mitsest.spotlightviewpager.model.SubtitleModel;
+import com.mitsest.spotlightviewpager.paint.SpotlightTextPaint;
+import com.mitsest.spotlightviewpager.paint.TextLayoutCache;
+import com.mitsest.spotlightviewpager.paint.TextLayoutEngine;
+import com.mitsest.spotlightviewpager.view.SpotlightView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Jvm benchmarks of the draw and layout hot paths, for tours of 1, 10 and 100 pages.
+ * Robolectric 4.0.2 runs in legacy graphics mode: Canvas, Paint, Path and text measurement are its java shadows,
+ * so the timings are the library's own code plus those shadows, not what a device spends rasterizing or measuring.
+ * They catch regressions in the library's code, compared between commits on the same machine.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27) // On P text is precomputed, which needs native measurement Robolectric does not provide
+public class TourBenchmark {
+    private static final int[] PAGES = {1, 10, 100};
+    private static final int WIDTH = 1080; // px
+    private static final int HEIGHT = 1920; // px
+    private static final int SAFE_AREA = 16; // px
+    private static final int SUBTITLE_LINES = 3;
+    private static final int LONG_SUBTITLE_LINES = 50;
+    private static final long DRAIN_TIMEOUT_SECONDS = 10;
+    private static final String WORDS = "Alias doloribus rerum magnam quam aliquid aliquid maxime est mollitia nihil ab quia unde facilis ";
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.setupActivity(Activity.class);
+        // Posted work waits for the looper to be idled, as on a device. Unpaused, Robolectric runs posts right away
+        // and animations that post their next frame from within a frame stop.
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @Test
+    public void globalLayout() {
+        for (int pages : PAGES) {
+            final List<SpotlightViewModel> tour = createTour(pages, SUBTITLE_LINES);
+            final SpotlightView spotlightView = new SpotlightView(activity);
+
+            // Every page is prepared by default: snapshot on the ui thread, placement and text in the background
+            final BenchmarkState state = new BenchmarkState("onGlobalLayout until every page is prepared, " + pages + " pages");
+            while (state.keepRunning()) {
+                SpotlightView.addSpotlightView(activity, spotlightView, tour);
+                layout();
+
+                state.begin();
+                spotlightView.onGlobalLayout();
+                drainTextLayoutEngine();
+                state.end();
+
+                // Drops the tour before its onPrepared callbacks run, so none of them starts it
+                spotlightView.recycle();
+                ShadowLooper.runUiThreadTasks();
+            }
+            state.report();
+
+            spotlightView.recycle();
+        }
+    }
+
+    @Test
+    public void draw() {
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+        for (int pages : PAGES) {
+            final List<SpotlightViewModel> tour = createTour(pages, SUBTITLE_LINES);
+            final DrawTimedSpotlightView spotlightView = new DrawTimedSpotlightView(activity);
+            SpotlightView.addSpotlightView(activity, spotlightView, tour);
+            layout();
+            show(spotlightView);
+
+            final BenchmarkState state = new BenchmarkState("onDraw, " + pages + " pages");
+            while (state.keepRunning()) {
+                state.begin();
+                spotlightView.onDraw(canvas);
+                state.end();
+            }
+            state.report();
+
+            spotlightView.recycle();
+        }
+    }
+
+    @Test
+    public void prepare() {
+        benchmarkPrepare("prepare", SUBTITLE_LINES);
+    }
+
+    @Test
+    public void prepareFittingSubtitle() {
+        // Subtitles longer than the space left on screen go through fitSubtitlePaintLayout
+        benchmarkPrepare("prepare with a fitted subtitle", LONG_SUBTITLE_LINES);
+    }
+
+    /**
+     * The background stage of a page, placing it and laying out its text, the way SpotlightView's executor runs it
+     */
+    private void benchmarkPrepare(@NonNull String name, int subtitleLines) {
+        final SpotlightTextPaint textPaint = new SpotlightTextPaint(activity);
+
+        for (int pages : PAGES) {
+            final List<SpotlightViewModel> tour = createTour(pages, subtitleLines);
+            final OffsetDelegate offsetDelegate = createOffsetDelegate();
+            for (SpotlightViewModel viewModel : tour) {
+                viewModel.setTextPaint(textPaint);
+                viewModel.setMaxBottom(HEIGHT);
+            }
+
+            final BenchmarkState cold = new BenchmarkState(name + ", " + pages + " pages");
+            int width = WIDTH;
+            while (cold.keepRunning()) {
+                // Laid out pages are only laid out again when their width changes
+                width = width == WIDTH ? WIDTH - 1 : WIDTH;
+                snapshot(tour, width);
+                TextLayoutCache.getInstance().clear();
+
+                cold.begin();
+                for (SpotlightViewModel viewModel : tour) {
+                    viewModel.prepare(offsetDelegate, SAFE_AREA);
+                }
+                cold.end();
+            }
+            cold.report();
+
+            final BenchmarkState cached = new BenchmarkState(name + " (target snapshot again, nothing moved), " + pages + " pages");
+            while (cached.keepRunning()) {
+                snapshot(tour, width);
+
+                cached.begin();
+                for (SpotlightViewModel viewModel : tour) {
+                    viewModel.prepare(offsetDelegate, SAFE_AREA);
+                }
+                cached.end();
+            }
+            cached.report();
+        }
+    }
+
+    /**
+     * The ui thread stage of a page, what SpotlightView does before the spotlight can head to it
+     */
+    @Test
+    public void snapshotAndPlace() {
+        for (int pages : PAGES) {
+            final List<SpotlightViewModel> tour = createTour(pages, SUBTITLE_LINES);
+            final OffsetDelegate offsetDelegate = createOffsetDelegate();
+
+            final BenchmarkState state = new BenchmarkState("snapshotTarget and place, " + pages + " pages");
+            while (state.keepRunning()) {
+                state.begin();
+                for (SpotlightViewModel viewModel : tour) {
+                    viewModel.snapshotTarget();
+                    viewModel.place(offsetDelegate, SAFE_AREA);
+                }
+                state.end();
+            }
+            state.report();
+        }
+    }
+
+    /**
+     * Replaces the activity's content with one target view per page
+     */
+    @NonNull
+    private List<SpotlightViewModel> createTour(int pages, int subtitleLines) {
+        final LinearLayout content = new LinearLayout(activity);
+        content.setOrientation(LinearLayout.VERTICAL);
+        activity.setContentView(content);
+
+        final String subtitle = getSubtitle(subtitleLines);
+        final List<SpotlightViewModel> tour = new ArrayList<>(pages);
+
+        for (int i = 0; i < pages; i++) {
+            final TextView target = new TextView(activity);
+            target.setText("Target " + i);
+            content.addView(target, new LinearLayout.LayoutParams(WIDTH / 2, HEIGHT / (pages + 1)));
+
+            tour.add(new SpotlightViewModel("Page " + i, new SubtitleModel(subtitle, subtitleLines), target));
+        }
+
+        return tour;
+    }
+
+    @NonNull
+    private static String getSubtitle(int lines) {
+        final StringBuilder subtitle = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            subtitle.append(WORDS);
+        }
+
+        return subtitle.toString();
+    }
+
+    /**
+     * Snapshots every target the way SpotlightView does before preparing pages
+     */
+    private static void snapshot(@NonNull List<SpotlightViewModel> tour, int width) {
+        for (SpotlightViewModel viewModel : tour) {
+            viewModel.snapshotTarget();
+            viewModel.setMaxWidth(width);
+        }
+    }
+
+    /**
+     * Lays out the tour's targets, offsets are taken relative to the activity's content as SpotlightView is added there
+     */
+    @NonNull
+    private OffsetDelegate createOffsetDelegate() {
+        layout();
+
+        final OffsetDelegate offsetDelegate = new OffsetDelegate();
+        offsetDelegate.onLayout(activity.findViewById(android.R.id.content), true, 0, 0, WIDTH, HEIGHT);
+
+        return offsetDelegate;
+    }
+
+    /**
+     * Waits for the pages submitted to TextLayoutEngine so far, it prepares them in order on a single thread
+     */
+    private static void drainTextLayoutEngine() {
+        final CountDownLatch drained = new CountDownLatch(1);
+        TextLayoutEngine.getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                drained.countDown();
+            }
+        });
+
+        try {
+            assertTrue("pages were not prepared", drained.await(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void layout() {
+        final View decorView = activity.getWindow().getDecorView();
+        decorView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        decorView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Runs the tour until its first page has grown, pulsed and faded its text in
+     */
+    private static void show(@NonNull SpotlightView spotlightView) {
+        spotlightView.onGlobalLayout();
+
+        // Pages are prepared on a background thread, the tour starts once the first one is
+        for (int i = 0; i < 500 && spotlightView.isClosed(); i++) {
+            sleep(2);
+            ShadowLooper.idleMainLooper(16, TimeUnit.MILLISECONDS);
+        }
+
+        assertFalse("first page was not shown", spotlightView.isClosed());
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        assertTrue(spotlightView.getVisibility() == View.VISIBLE);
+    }
+
+    /**
+     * Exposes onDraw, so that View.draw's own work (background, layers, children) is left out of the timing
+     */
+    private static class DrawTimedSpotlightView extends SpotlightView {
+        DrawTimedSpotlightView(@NonNull Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            super.onDraw(canvas);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
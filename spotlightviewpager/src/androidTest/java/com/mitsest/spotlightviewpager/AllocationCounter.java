@@ -0,0 +1,37 @@
+package com.mitsest.spotlightviewpager;
+
+import android.os.Debug;
+
+/**
+ * Counts the objects allocated by the calling thread, for the allocation tests.
+ * Debug's per thread counters are deprecated, but nothing replaces them for a single thread,
+ * so this is the only place the tests use them.
+ */
+@SuppressWarnings("deprecation")
+public final class AllocationCounter {
+
+    private AllocationCounter() {
+    }
+
+    public static void start() {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+    }
+
+    /**
+     * @return objects allocated by this thread since {@link #start()}
+     */
+    public static int stop() {
+        Debug.stopAllocCounting();
+        return Debug.getThreadAllocCount();
+    }
+
+    /**
+     * @return objects allocated by this thread while running block
+     */
+    public static int count(Runnable block) {
+        start();
+        block.run();
+        return stop();
+    }
+}
@@ -0,0 +1,101 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the per frame cost of blurring the spotlight border with a BlurMaskFilter, as SpotlightPaint used to do,
+ * with drawing the cached BorderGlow bitmap, over the frames of a move animation on a software canvas.
+ * Results are written to logcat under the "spotlightviewpager" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BorderGlowBenchmark {
+    private static final int WIDTH = 1080; // px
+    private static final int HEIGHT = 1920; // px
+    private static final int RADIUS = 24; // px
+    private static final int BORDER_SIZE = 6; // px
+    private static final int BLUR_RADIUS = 20; // px
+    private static final int FRAMES = 60;
+    private static final int WARM_UP = 2;
+    private static final int ITERATIONS = 5;
+
+    private static final RectF FROM = new RectF(100, 200, 400, 350);
+    private static final RectF TO = new RectF(500, 1200, 1000, 1500);
+
+    @Test
+    public void compareGlow() {
+        final Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        final RectF rect = new RectF();
+
+        final Paint blurPaint = new Paint();
+        blurPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        blurPaint.setAntiAlias(true);
+        blurPaint.setDither(true);
+        blurPaint.setStrokeWidth(BORDER_SIZE);
+        blurPaint.setMaskFilter(new BlurMaskFilter(BLUR_RADIUS, BlurMaskFilter.Blur.OUTER));
+        blurPaint.setColor(Color.MAGENTA);
+
+        final BorderGlow glow = new BorderGlow(RADIUS, BORDER_SIZE, BLUR_RADIUS, Color.MAGENTA);
+
+        for (int i = 0; i < WARM_UP; i++) {
+            drawBlur(canvas, rect, blurPaint);
+            drawGlow(canvas, rect, glow);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            drawBlur(canvas, rect, blurPaint);
+        }
+        final long blurNs = (System.nanoTime() - start) / (ITERATIONS * FRAMES);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            drawGlow(canvas, rect, glow);
+        }
+        final long glowNs = (System.nanoTime() - start) / (ITERATIONS * FRAMES);
+
+        Log.i("spotlightviewpager", String.format("border glow per frame: BlurMaskFilter %d us, cached bitmap %d us",
+                blurNs / 1000, glowNs / 1000));
+
+        // The glow of the last frame is drawn just outside of its rect
+        assertTrue(Color.alpha(bitmap.getPixel((int) TO.right + BORDER_SIZE, (int) TO.centerY())) > 0);
+    }
+
+    private static void drawBlur(@NonNull Canvas canvas, @NonNull RectF rect, @NonNull Paint paint) {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            setFrame(rect, frame);
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            canvas.drawRoundRect(rect, RADIUS, RADIUS, paint);
+        }
+    }
+
+    private static void drawGlow(@NonNull Canvas canvas, @NonNull RectF rect, @NonNull BorderGlow glow) {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            setFrame(rect, frame);
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            glow.draw(canvas, rect);
+        }
+    }
+
+    private static void setFrame(@NonNull RectF rect, int frame) {
+        final float fraction = frame / (float) (FRAMES - 1);
+        rect.set(FROM.left + (TO.left - FROM.left) * fraction,
+                FROM.top + (TO.top - FROM.top) * fraction,
+                FROM.right + (TO.right - FROM.right) * fraction,
+                FROM.bottom + (TO.bottom - FROM.bottom) * fraction);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Which tiles of the mask a hole edits. Every edited tile is uploaded again by a hardware canvas,
+ * so a frame whose hole did not change must not edit any.
+ */
+@RunWith(AndroidJUnit4.class)
+public class OverlayMaskTest {
+    private static final int SIZE = 1000; // px, 4x4 tiles
+    private static final float RADIUS = 10;
+
+    private OverlayMask mask;
+
+    @Before
+    public void setUp() {
+        mask = new OverlayMask();
+    }
+
+    @After
+    public void tearDown() {
+        mask.release();
+    }
+
+    @Test
+    public void unchangedRoundRectEditsNoTiles() {
+        final RectF rect = new RectF(100, 100, 200, 200);
+
+        mask.setHole(SIZE, SIZE, rect, RADIUS);
+        assertEquals(1, mask.editedTiles);
+
+        mask.setHole(SIZE, SIZE, new RectF(rect), RADIUS);
+        assertEquals(0, mask.editedTiles);
+    }
+
+    @Test
+    public void unchangedPathEditsNoTiles() {
+        final RectF rect = new RectF(100, 100, 200, 200);
+        final Path path = new Path();
+        path.addOval(rect, Path.Direction.CW);
+
+        mask.setHole(SIZE, SIZE, rect, RADIUS, path, 1);
+        assertEquals(1, mask.editedTiles);
+
+        mask.setHole(SIZE, SIZE, rect, RADIUS, path, 1);
+        assertEquals(0, mask.editedTiles);
+
+        // Rebuilt in place within the same bounds
+        mask.setHole(SIZE, SIZE, rect, RADIUS, path, 2);
+        assertEquals(1, mask.editedTiles);
+    }
+
+    @Test
+    public void movedHoleEditsTheTilesItLeftAndEntered() {
+        mask.setHole(SIZE, SIZE, new RectF(100, 100, 200, 200), RADIUS);
+        mask.setHole(SIZE, SIZE, new RectF(300, 100, 400, 200), RADIUS);
+
+        assertEquals(2, mask.editedTiles);
+    }
+
+    @Test
+    public void removedHoleEditsTheTilesItLeft() {
+        mask.setHole(SIZE, SIZE, new RectF(100, 100, 200, 200), RADIUS);
+        mask.setHole(SIZE, SIZE, null, RADIUS);
+
+        assertEquals(1, mask.editedTiles);
+
+        mask.setHole(SIZE, SIZE, null, RADIUS);
+        assertEquals(0, mask.editedTiles);
+    }
+}
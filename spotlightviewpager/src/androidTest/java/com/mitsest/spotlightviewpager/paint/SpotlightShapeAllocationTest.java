@@ -0,0 +1,80 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import com.mitsest.spotlightviewpager.AllocationCounter;
+import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
+import com.mitsest.spotlightviewpager.model.SubtitleModel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Draws the hole and border of a growing spotlight in every shape, one frame per size,
+ * and checks that no object is allocated once the shapes have been warmed up.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpotlightShapeAllocationTest {
+    private static final int FRAMES = 60;
+
+    @Test
+    public void drawingShapesDoesNotAllocate() {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final SpotlightPaint spotlightPaint = new SpotlightPaint(context);
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(400, 400, Bitmap.Config.ARGB_8888));
+
+        final Path star = new Path();
+        star.moveTo(50, 0);
+        star.lineTo(61, 35);
+        star.lineTo(98, 35);
+        star.lineTo(68, 57);
+        star.lineTo(79, 91);
+        star.lineTo(50, 70);
+        star.lineTo(21, 91);
+        star.lineTo(32, 57);
+        star.lineTo(2, 35);
+        star.lineTo(39, 35);
+        star.close();
+
+        final SpotlightShape[] shapes = {
+                new RoundRectSpotlightShape(),
+                new CircleSpotlightShape(),
+                new OvalSpotlightShape(),
+                new PathSpotlightShape(star)
+        };
+
+        final SpotlightViewModel page = new SpotlightViewModel("Title", new SubtitleModel("Subtitle", 3), new View(context));
+        final Runnable frames = new Runnable() {
+            @Override
+            public void run() {
+                drawFrames(spotlightPaint, canvas, page);
+            }
+        };
+
+        for (SpotlightShape shape : shapes) {
+            page.setShape(shape);
+            frames.run(); // warm up
+
+            assertEquals(shape.getClass().getSimpleName(), 0, AllocationCounter.count(frames));
+        }
+    }
+
+    private static void drawFrames(@NonNull SpotlightPaint spotlightPaint, @NonNull Canvas canvas, @NonNull SpotlightViewModel page) {
+        for (int frame = 1; frame <= FRAMES; frame++) {
+            page.set(200 - frame * 2, 200 - frame, 200 + frame * 2, 200 + frame);
+
+            spotlightPaint.drawSpotlightBorder(canvas, page);
+            spotlightPaint.drawSpotlight(canvas, page);
+            spotlightPaint.getSpotlightPath(page);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.content.Context;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import com.mitsest.spotlightviewpager.AllocationCounter;
+
+import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
+import com.mitsest.spotlightviewpager.model.SubtitleModel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Lays out a 100 page tour with one SpotlightTextPaint, the way SpotlightView does, and with a SpotlightTextPaint
+ * per page, the way every page used to. Allocations are counted instead of measuring the heap, which the gc and
+ * the native allocator make noisy. Counts are written to logcat under the "spotlightviewpager" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpotlightTextPaintFootprintTest {
+    private static final int PAGES = 100;
+
+    @Test
+    public void everyPageSharesTheTextPaints() {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final View targetView = new View(context);
+        final SpotlightTextPaint textPaint = new SpotlightTextPaint(context);
+        final RectF bounds = new RectF(100, 1200, 300, 1400);
+
+        final SpotlightTextLayout first = layOut(textPaint, targetView, bounds, 0);
+        assertNotNull(first.titlePaintLayout);
+        assertNotNull(first.subtitlePaintLayout);
+        assertNotNull(first.pageNumberPaintLayout);
+
+        for (int i = 1; i < PAGES; i++) {
+            final SpotlightTextLayout text = layOut(textPaint, targetView, bounds, i);
+
+            assertNotNull(text.titlePaintLayout);
+            assertNotNull(text.subtitlePaintLayout);
+            assertNotNull(text.pageNumberPaintLayout);
+            assertSame(first.titlePaintLayout.getPaint(), text.titlePaintLayout.getPaint());
+            assertSame(first.subtitlePaintLayout.getPaint(), text.subtitlePaintLayout.getPaint());
+            assertSame(first.pageNumberPaintLayout.getPaint(), text.pageNumberPaintLayout.getPaint());
+        }
+    }
+
+    @Test
+    public void sharedTextPaintAllocatesLess() {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final View targetView = new View(context);
+        final RectF bounds = new RectF(100, 1200, 300, 1400);
+
+        // warm up (class loading, resources, layout cache)
+        layOutTour(context, targetView, bounds, false);
+        layOutTour(context, targetView, bounds, true);
+
+        final int paintAllocations = AllocationCounter.count(new Runnable() {
+            @Override
+            public void run() {
+                new SpotlightTextPaint(context);
+            }
+        });
+        final int perPage = countTour(context, targetView, bounds, false);
+        final int shared = countTour(context, targetView, bounds, true);
+
+        Log.i("spotlightviewpager", String.format("%d page tour allocations: text paint per page %d, shared text paint %d, one text paint %d",
+                PAGES, perPage, shared, paintAllocations));
+
+        assertTrue(paintAllocations > 0);
+        // Every page but the first saves at least what building its own paint costs
+        assertTrue(perPage - shared >= (PAGES - 1) * paintAllocations);
+    }
+
+    private static int countTour(@NonNull final Context context, @NonNull final View targetView, @NonNull final RectF bounds,
+                                 final boolean sharedTextPaint) {
+        TextLayoutCache.getInstance().clear(); // both tours measure every layout
+
+        return AllocationCounter.count(new Runnable() {
+            @Override
+            public void run() {
+                layOutTour(context, targetView, bounds, sharedTextPaint);
+            }
+        });
+    }
+
+    private static void layOutTour(@NonNull Context context, @NonNull View targetView, @NonNull RectF bounds, boolean sharedTextPaint) {
+        final SpotlightTextPaint shared = sharedTextPaint ? new SpotlightTextPaint(context) : null;
+
+        for (int i = 0; i < PAGES; i++) {
+            layOut(shared != null ? shared : new SpotlightTextPaint(context), targetView, bounds, i);
+        }
+    }
+
+    @NonNull
+    private static SpotlightTextLayout layOut(@NonNull SpotlightTextPaint textPaint, @NonNull View targetView, @NonNull RectF bounds, int index) {
+        final SpotlightViewModel viewModel = new SpotlightViewModel("Title " + index, new SubtitleModel("Subtitle " + index, 3), targetView);
+
+        final SpotlightTextLayout text = new SpotlightTextLayout();
+        text.setMaxWidth(1000);
+        text.setMaxBottom(2000);
+        text.setPage(index + 1);
+        text.setNumberOfPages(PAGES);
+
+        textPaint.setText(text, viewModel, bounds);
+        return text;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.content.Context;
+import android.graphics.RectF;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.text.Layout;
+import android.view.View;
+
+import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
+import com.mitsest.spotlightviewpager.model.SubtitleModel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Placing a page again at the same bounds must not lay its subtitle out again
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpotlightTextPaintRelayoutTest {
+    private static final String SUBTITLE = "Alias doloribus rerum magnam quam aliquid aliquid maxime est mollitia nihil ab quia unde facilis";
+
+    @Test
+    public void unchangedBoundsKeepSubtitleLayout() {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final SpotlightTextPaint textPaint = new SpotlightTextPaint(context);
+        final SpotlightViewModel viewModel = new SpotlightViewModel("Title", new SubtitleModel(SUBTITLE, 3), new View(context));
+        final RectF bounds = new RectF(100, 1200, 300, 1400); // room above it for the text, which goes on top by default
+
+        final SpotlightTextLayout text = new SpotlightTextLayout();
+        text.setMaxWidth(1000);
+        text.setMaxBottom(2000);
+        text.setPage(1);
+        text.setNumberOfPages(3);
+
+        textPaint.setText(text, viewModel, bounds);
+        final Layout subtitle = text.subtitlePaintLayout;
+        final float subtitleHeight = text.laidOutSubtitleHeight;
+        assertNotNull(subtitle);
+
+        // A refit would have to build a new layout
+        TextLayoutCache.getInstance().clear();
+        textPaint.setText(text, viewModel, bounds);
+
+        assertSame(subtitle, text.subtitlePaintLayout);
+        assertEquals(subtitleHeight, text.laidOutSubtitleHeight, 0);
+    }
+}
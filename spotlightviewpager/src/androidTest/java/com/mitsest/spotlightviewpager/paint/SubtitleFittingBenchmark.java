@@ -0,0 +1,106 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+import android.text.DynamicLayout;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.mitsest.spotlightviewpager.Commons;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the line by line subtitle fitting that SpotlightTextPaint used to do
+ * with the binary search of SubtitleFitter, for subtitles of 5 to 50 lines.
+ * Results are written to logcat under the "spotlightviewpager" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SubtitleFittingBenchmark {
+    private static final int[] LINE_COUNTS = {5, 10, 20, 35, 50};
+    private static final int WIDTH = 1000; // px
+    private static final int WARM_UP = 5;
+    private static final int ITERATIONS = 30;
+    private static final String WORDS = "Alias doloribus rerum magnam quam aliquid aliquid maxime est mollitia nihil ab quia unde facilis ";
+
+    @Test
+    public void compareFitting() {
+        final TextPaint paint = new TextPaint();
+        paint.setAntiAlias(true);
+        paint.setTextSize(40);
+
+        for (int lines : LINE_COUNTS) {
+            final String text = getText(paint, lines);
+            final float availableHeight = Commons.getStaticLayout(text, paint, WIDTH).getLineBottom(lines / 2);
+
+            for (int i = 0; i < WARM_UP; i++) {
+                fitLinear(text, paint, lines, availableHeight);
+                fitBinarySearch(text, paint, lines, availableHeight);
+            }
+
+            long start = System.nanoTime();
+            Layout linear = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                linear = fitLinear(text, paint, lines, availableHeight);
+            }
+            final long linearNs = (System.nanoTime() - start) / ITERATIONS;
+
+            start = System.nanoTime();
+            Layout binarySearch = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                binarySearch = fitBinarySearch(text, paint, lines, availableHeight);
+            }
+            final long binarySearchNs = (System.nanoTime() - start) / ITERATIONS;
+
+            Log.i("spotlightviewpager", String.format("subtitle fitting, %d lines: linear %d us, binary search %d us",
+                    lines, linearNs / 1000, binarySearchNs / 1000));
+
+            assertTrue(linear != null && linear.getHeight() <= availableHeight);
+            assertTrue(binarySearch != null && binarySearch.getHeight() <= availableHeight);
+        }
+    }
+
+    @NonNull
+    private static String getText(@NonNull TextPaint paint, int lines) {
+        final StringBuilder text = new StringBuilder();
+
+        while (Commons.getStaticLayout(text, paint, WIDTH).getLineCount() < lines) {
+            text.append(WORDS);
+        }
+
+        return text.toString();
+    }
+
+    // What SpotlightTextPaint.fitSubtitlePaintLayout used to do: one ellipsize and one layout per removed line
+    @NonNull
+    private static Layout fitLinear(@NonNull String text, @NonNull TextPaint paint, int maxLines, float availableHeight) {
+        Layout layout = getDynamicLayout(
+                TextUtils.ellipsize(text, paint, WIDTH * maxLines, TextUtils.TruncateAt.END), paint, WIDTH);
+
+        while (layout.getHeight() > availableHeight && maxLines >= 1) {
+            --maxLines;
+            layout = getDynamicLayout(
+                    TextUtils.ellipsize(text, paint, WIDTH * maxLines, TextUtils.TruncateAt.END), paint, WIDTH);
+        }
+
+        return layout;
+    }
+
+    @NonNull
+    private static Layout fitBinarySearch(@NonNull String text, @NonNull TextPaint paint, int maxLines, float availableHeight) {
+        final Layout measured = Commons.getStaticLayout(text, paint, WIDTH);
+        final int lineCount = SubtitleFitter.fitLineCount(measured, maxLines, availableHeight);
+
+        return TextLayoutEngine.build(SubtitleFitter.ellipsize(text, measured, lineCount, paint, WIDTH), paint, WIDTH);
+    }
+
+    @NonNull
+    private static Layout getDynamicLayout(@NonNull CharSequence text, @NonNull TextPaint paint, int width) {
+        return new DynamicLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1, 1, true);
+    }
+}
@@ -0,0 +1,192 @@
+package com.mitsest.spotlightviewpager.view;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.ViewTreeObserver;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import com.mitsest.spotlightviewpager.AllocationCounter;
+import com.mitsest.spotlightviewpager.animation.FrameMetricsDelegate;
+import com.mitsest.spotlightviewpager.animation.PhaseMetrics;
+import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
+import com.mitsest.spotlightviewpager.model.SubtitleModel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Plays a whole tour (grow, pulse, text, move, ..., close) through a SpotlightView in a window, in every render mode,
+ * and counts what the ui thread allocates from one drawn frame to the next.
+ * Frames that start or end a phase are left out: starting an animator allocates in the framework.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpotlightViewAllocationTest {
+    private static final int PAGES = 10;
+    private static final long TOUR_TIMEOUT_SECONDS = 60;
+    private static final int[] RENDER_MODES = {
+            SpotlightView.RENDER_MODE_SOFTWARE,
+            SpotlightView.RENDER_MODE_HARDWARE,
+            SpotlightView.RENDER_MODE_MASK
+    };
+
+    @Test
+    public void tourFramesDoNotAllocate() throws InterruptedException {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Intent intent = new Intent(Intent.ACTION_MAIN)
+                .setClassName(instrumentation.getTargetContext(), Activity.class.getName())
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        final Activity activity = instrumentation.startActivitySync(intent);
+        final List<SpotlightViewModel> models = new ArrayList<>();
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final LinearLayout content = new LinearLayout(activity);
+                content.setOrientation(LinearLayout.VERTICAL);
+
+                for (int i = 0; i < PAGES; i++) {
+                    final TextView target = new TextView(activity);
+                    target.setText("Target " + i);
+                    target.setPadding(40, 40, 40, 40);
+                    content.addView(target);
+
+                    models.add(new SpotlightViewModel("Title " + i, new SubtitleModel("Subtitle " + i, 3), target));
+                }
+
+                activity.setContentView(content);
+            }
+        });
+
+        for (int renderMode : RENDER_MODES) {
+            final TourPlayer player = new TourPlayer(activity, models, renderMode);
+
+            player.play(instrumentation, false); // warm up (class loading, text layouts, layers)
+            player.play(instrumentation, true);
+
+            assertTrue(player.frames > 0);
+            assertEquals("render mode " + renderMode, 0, player.allocations);
+        }
+
+        activity.finish();
+    }
+
+    /**
+     * Moves to the next page once the text of the current one has faded in, closes after the last one.
+     * Everything but play() runs on the ui thread.
+     */
+    private static class TourPlayer implements FrameMetricsDelegate.Listener, ViewTreeObserver.OnDrawListener, Runnable {
+        @NonNull private final Activity activity;
+        @NonNull private final List<SpotlightViewModel> models;
+        @NonNull private final SpotlightView spotlightView;
+
+        @NonNull private CountDownLatch closed = new CountDownLatch(1);
+        private int page;
+        private boolean counting;
+        private boolean measuring; // an interval from the last drawn frame is being counted
+        private boolean boundary; // a phase started or ended since the last drawn frame
+        int frames;
+        int allocations;
+
+        TourPlayer(@NonNull Activity activity, @NonNull List<SpotlightViewModel> models, int renderMode) {
+            this.activity = activity;
+            this.models = models;
+            this.spotlightView = SpotlightView.Builder.getInstance(activity)
+                    .setRenderMode(renderMode)
+                    .setMetricsListener(this)
+                    .build();
+        }
+
+        void play(@NonNull Instrumentation instrumentation, final boolean count) throws InterruptedException {
+            closed = new CountDownLatch(1);
+
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    page = 0;
+                    counting = count;
+                    measuring = false;
+                    boundary = true;
+
+                    activity.getWindow().getDecorView().getViewTreeObserver().addOnDrawListener(TourPlayer.this);
+                    SpotlightView.addSpotlightView(activity, spotlightView, models);
+                }
+            });
+
+            assertTrue(closed.await(TOUR_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    activity.getWindow().getDecorView().getViewTreeObserver().removeOnDrawListener(TourPlayer.this);
+                }
+            });
+        }
+
+        @Override
+        public void onDraw() {
+            if (!counting) {
+                return;
+            }
+
+            if (measuring) {
+                final int allocated = AllocationCounter.stop();
+
+                if (!boundary) {
+                    allocations += allocated;
+                    frames++;
+                }
+            }
+
+            boundary = false;
+            measuring = true;
+            AllocationCounter.start();
+        }
+
+        @Override
+        public void onPhaseMetrics(@NonNull PhaseMetrics metrics) {
+            boundary = true;
+
+            if (metrics.getPhase() == PhaseMetrics.PHASE_TEXT) {
+                spotlightView.post(this);
+            } else if (metrics.getPhase() == PhaseMetrics.PHASE_CLOSE) {
+                if (measuring) {
+                    AllocationCounter.stop();
+                }
+
+                counting = false;
+                measuring = false;
+                closed.countDown();
+            }
+        }
+
+        @Override
+        public void onColdStart(long durationNanos) {
+        }
+
+        // Next page
+        @Override
+        public void run() {
+            boundary = true;
+            page++;
+
+            if (page < models.size()) {
+                spotlightView.showPage(page);
+            } else {
+                spotlightView.close();
+            }
+        }
+    }
+}
@@ -9,8 +9,8 @@ import android.support.annotation.CallSuper;
 import android.support.annotation.DimenRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.text.DynamicLayout;
 import android.text.Layout;
+import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.text.TextUtils;
 import android.util.DisplayMetrics;
@@ -59,14 +59,14 @@ public class Commons {
         }
     }
     
-    public static DynamicLayout getDynamicLayout(@NonNull CharSequence text, @NonNull TextPaint paint, int width) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
-            return DynamicLayout.Builder.obtain(
-                    text, paint, width
+    public static StaticLayout getStaticLayout(@NonNull CharSequence text, @NonNull TextPaint paint, int width) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return StaticLayout.Builder.obtain(
+                    text, 0, text.length(), paint, width
             ).build();
         } else {
-            return new DynamicLayout(
-                text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1, 1, true);
+            return new StaticLayout(
+                    text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1, 1, true);
         }
     }
 }
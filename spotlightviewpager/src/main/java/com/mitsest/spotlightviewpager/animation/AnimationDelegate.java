@@ -13,9 +13,30 @@ import com.mitsest.spotlightviewpager.Commons;
 public class AnimationDelegate {
 
     @NonNull private final ValueAnimator[] animators;
+    @Nullable private final DirtyRegionDelegate dirtyRegion;
+    @Nullable private AnimatorSet animatorSet;
+    @Nullable private FrameMetricsDelegate metrics;
+    @PhaseMetrics.Phase private int metricsPhase;
 
     public AnimationDelegate(@NonNull ValueAnimator[] animators) {
+        this(animators, null);
+    }
+
+    /**
+     * @param animators: animators to play together
+     * @param dirtyRegion: limits each frame's invalidation to the changed region, null redraws the whole view
+     */
+    public AnimationDelegate(@NonNull ValueAnimator[] animators, @Nullable DirtyRegionDelegate dirtyRegion) {
         this.animators = animators;
+        this.dirtyRegion = dirtyRegion;
+    }
+
+    /**
+     * Reports the frames of the next animation to metrics as phase
+     */
+    public void setMetrics(@Nullable FrameMetricsDelegate metrics, @PhaseMetrics.Phase int phase) {
+        this.metrics = metrics;
+        this.metricsPhase = phase;
     }
 
     public void animate(@NonNull final View v, final int durationMs, @NonNull Interpolator interpolator) {
@@ -31,12 +52,28 @@ public class AnimationDelegate {
      */
     public void animate(@NonNull final View v, @Nullable final Animator.AnimatorListener listener, final int durationMs, @NonNull Interpolator interpolator) {
         final AnimatorSet animatorSet = new AnimatorSet();
+        this.animatorSet = animatorSet;
 
         if (animators.length >= 1) {
-            animators[animators.length - 1].addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            final ValueAnimator lastAnimator = animators[animators.length - 1];
+            final ValueAnimator.AnimatorUpdateListener invalidateListener = new ValueAnimator.AnimatorUpdateListener() {
                 @Override
                 public void onAnimationUpdate(ValueAnimator valueAnimator) {
-                    v.postInvalidate();
+                    if (dirtyRegion != null) {
+                        dirtyRegion.invalidate(v);
+                    } else {
+                        v.postInvalidate();
+                    }
+                }
+            };
+
+            lastAnimator.addUpdateListener(invalidateListener);
+
+            // Animators may be reused by the next run, leave them as they were
+            animatorSet.addListener(new Commons.AnimationListener() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    lastAnimator.removeUpdateListener(invalidateListener);
                 }
             });
 
@@ -50,8 +87,43 @@ public class AnimationDelegate {
             animatorSet.addListener(listener);
         }
 
+        if (metrics != null && metrics.isEnabled()) {
+            final FrameMetricsDelegate metrics = this.metrics;
+            final int phase = metricsPhase;
+
+            animatorSet.addListener(new Commons.AnimationListener() {
+                private boolean cancelled = false;
+
+                @Override
+                public void onAnimationStart(Animator animation) {
+                    cancelled = false;
+                    metrics.startPhase(phase);
+                }
+
+                @Override
+                public void onAnimationCancel(Animator animation) {
+                    // A cancelled phase is dropped, its frames would be reported as a complete run
+                    cancelled = true;
+                    metrics.cancelPhase(phase);
+                    super.onAnimationCancel(animation);
+                }
+
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    if (!cancelled) {
+                        metrics.endPhase(phase);
+                    }
+                }
+            });
+        }
+
         animatorSet.start();
 
     }
 
+    public void cancel() {
+        if (animatorSet != null) {
+            animatorSet.cancel();
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.mitsest.spotlightviewpager.animation;
+
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Px;
+import android.view.View;
+
+/**
+ * Invalidates only the part of the overlay that changed between two animation frames.
+ * The dirty region is the union of the bounds painted in the previous frame and the ones
+ * that are going to be painted in the next frame, extended by a fixed margin.
+ */
+public class DirtyRegionDelegate {
+
+    public interface DirtyBoundsProvider {
+        /**
+         * @param out: bounds that the next frame is going to paint (margins excluded)
+         * @return false if nothing can be tracked and the whole view should be redrawn
+         */
+        boolean getDirtyBounds(@NonNull RectF out);
+    }
+
+    @NonNull private final DirtyBoundsProvider provider;
+    @NonNull private final RectF previous = new RectF();
+    @NonNull private final RectF current = new RectF();
+    @NonNull private final RectF dirty = new RectF();
+    @Px private final int margin;
+
+    public DirtyRegionDelegate(@NonNull DirtyBoundsProvider provider, @Px int margin) {
+        this.provider = provider;
+        this.margin = margin;
+    }
+
+    public void invalidate(@NonNull View v) {
+        current.setEmpty();
+
+        if (!provider.getDirtyBounds(current)) {
+            previous.setEmpty();
+            v.postInvalidate();
+            return;
+        }
+
+        current.inset(-margin, -margin);
+
+        dirty.set(current);
+        dirty.union(previous);
+        previous.set(current);
+
+        v.postInvalidate(
+                (int) Math.floor(dirty.left),
+                (int) Math.floor(dirty.top),
+                (int) Math.ceil(dirty.right),
+                (int) Math.ceil(dirty.bottom)
+        );
+    }
+
+    public void reset() {
+        previous.setEmpty();
+    }
+}
@@ -0,0 +1,253 @@
+package com.mitsest.spotlightviewpager.animation;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+
+import java.util.Arrays;
+
+/**
+ * Measures the frames of every animation phase with the Choreographer and reports them when the phase ends.
+ * Without a listener every method returns straight away, so nothing is measured and nothing is allocated.
+ * Once a listener is set the frame buffers are allocated up front and reused for every phase.
+ * The Choreographer callback lives in {@link FrameClock}, created with the first listener from Jelly Bean on,
+ * so this class still loads on Ice Cream Sandwich.
+ *
+ * Must be used from the ui thread.
+ */
+public class FrameMetricsDelegate {
+    private static final int MAX_FRAMES = 256; // per phase, later frames are counted but left out of the percentiles
+    private static final long DEFAULT_FRAME_INTERVAL = 16666667; // ns, 60hz
+
+    public interface Listener {
+        /**
+         * @param metrics: reused for every report, only valid during this call
+         */
+        void onPhaseMetrics(@NonNull PhaseMetrics metrics);
+
+        /**
+         * @param durationNanos: time from showing a tour to its first drawn frame
+         */
+        void onColdStart(long durationNanos);
+    }
+
+    @Nullable private Listener listener;
+    @Nullable private PhaseMetrics metrics;
+    @Nullable private long[][] frameDurations; // [phase][frame]
+    @Nullable private FrameClock frameClock; // null before Jelly Bean
+
+    private final boolean[] running = new boolean[PhaseMetrics.PHASE_COUNT];
+    private final long[] lastFrameTime = new long[PhaseMetrics.PHASE_COUNT];
+    private final int[] frameCount = new int[PhaseMetrics.PHASE_COUNT];
+    private final int[] droppedFrames = new int[PhaseMetrics.PHASE_COUNT];
+    private final long[] maxFrame = new long[PhaseMetrics.PHASE_COUNT];
+    private final int[] drawCount = new int[PhaseMetrics.PHASE_COUNT];
+    private final long[] drawTotal = new long[PhaseMetrics.PHASE_COUNT];
+    private final long[] maxDraw = new long[PhaseMetrics.PHASE_COUNT];
+
+    private long frameInterval = DEFAULT_FRAME_INTERVAL;
+    private boolean callbackPosted = false;
+    private long showRequestedTime = 0; // ns
+
+    public void setListener(@Nullable Listener listener) {
+        cancel();
+        this.listener = listener;
+
+        if (listener != null && frameDurations == null) {
+            metrics = new PhaseMetrics();
+            frameDurations = new long[PhaseMetrics.PHASE_COUNT][MAX_FRAMES];
+        }
+
+        if (listener != null && frameClock == null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            frameClock = new FrameClock(this);
+        }
+    }
+
+    /**
+     * Choreographer is only available from Jelly Bean
+     */
+    public boolean isEnabled() {
+        return listener != null && frameClock != null;
+    }
+
+    public void setRefreshRate(float refreshRate) {
+        if (refreshRate > 0) {
+            frameInterval = (long) (1000000000 / refreshRate);
+        }
+    }
+
+    /**
+     * Starts the cold start clock, stopped by {@link #onFirstFrame()}
+     */
+    public void onShowRequested() {
+        showRequestedTime = isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public void onFirstFrame() {
+        if (!isEnabled() || showRequestedTime == 0 || listener == null) {
+            return;
+        }
+
+        final long duration = System.nanoTime() - showRequestedTime;
+        showRequestedTime = 0;
+        listener.onColdStart(duration);
+    }
+
+    public void startPhase(@PhaseMetrics.Phase int phase) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        running[phase] = true;
+        lastFrameTime[phase] = 0;
+        frameCount[phase] = 0;
+        droppedFrames[phase] = 0;
+        maxFrame[phase] = 0;
+        drawCount[phase] = 0;
+        drawTotal[phase] = 0;
+        maxDraw[phase] = 0;
+
+        if (!callbackPosted && frameClock != null) {
+            callbackPosted = true;
+            frameClock.post();
+        }
+    }
+
+    public void endPhase(@PhaseMetrics.Phase int phase) {
+        if (!isEnabled() || !running[phase]) {
+            return;
+        }
+
+        running[phase] = false;
+        report(phase);
+    }
+
+    /**
+     * Stops measuring phase without reporting it, for a phase that was cancelled or interrupted before it ended
+     */
+    public void cancelPhase(@PhaseMetrics.Phase int phase) {
+        running[phase] = false;
+    }
+
+    /**
+     * @param durationNanos: time spent in onDraw, counted for every running phase
+     */
+    public void onDraw(long durationNanos) {
+        for (int phase = 0; phase < PhaseMetrics.PHASE_COUNT; phase++) {
+            if (running[phase]) {
+                drawCount[phase]++;
+                drawTotal[phase] += durationNanos;
+                maxDraw[phase] = Math.max(maxDraw[phase], durationNanos);
+            }
+        }
+    }
+
+    /**
+     * Stops measuring every running phase without reporting it
+     */
+    public void cancel() {
+        Arrays.fill(running, false);
+
+        if (callbackPosted && frameClock != null) {
+            callbackPosted = false;
+            frameClock.remove();
+        }
+    }
+
+    private void doFrame(long frameTimeNanos) {
+        callbackPosted = false;
+
+        boolean anyRunning = false;
+        for (int phase = 0; phase < PhaseMetrics.PHASE_COUNT; phase++) {
+            if (!running[phase]) {
+                continue;
+            }
+
+            anyRunning = true;
+            if (lastFrameTime[phase] != 0) {
+                onFrame(phase, frameTimeNanos - lastFrameTime[phase]);
+            }
+
+            lastFrameTime[phase] = frameTimeNanos;
+        }
+
+        if (anyRunning && frameClock != null) {
+            callbackPosted = true;
+            frameClock.post();
+        }
+    }
+
+    private void onFrame(int phase, long duration) {
+        if (frameDurations != null && frameCount[phase] < MAX_FRAMES) {
+            frameDurations[phase][frameCount[phase]] = duration;
+        }
+
+        frameCount[phase]++;
+        maxFrame[phase] = Math.max(maxFrame[phase], duration);
+
+        droppedFrames[phase] += getDroppedFrames(duration, frameInterval);
+    }
+
+    // A frame that spans n vsync intervals (rounded) dropped n - 1 of them
+    static int getDroppedFrames(long duration, long frameInterval) {
+        final long intervals = (duration + frameInterval / 2) / frameInterval;
+        return intervals > 1 ? (int) (intervals - 1) : 0;
+    }
+
+    private void report(int phase) {
+        if (listener == null || metrics == null || frameDurations == null) {
+            return;
+        }
+
+        final long[] durations = frameDurations[phase];
+        final int count = Math.min(frameCount[phase], MAX_FRAMES);
+        Arrays.sort(durations, 0, count);
+
+        metrics.phase = phase;
+        metrics.frameCount = frameCount[phase];
+        metrics.droppedFrames = droppedFrames[phase];
+        metrics.maxFrameNanos = maxFrame[phase];
+        metrics.p50FrameNanos = getPercentile(durations, count, 50);
+        metrics.p90FrameNanos = getPercentile(durations, count, 90);
+        metrics.p99FrameNanos = getPercentile(durations, count, 99);
+        metrics.drawCount = drawCount[phase];
+        metrics.maxDrawNanos = maxDraw[phase];
+        metrics.averageDrawNanos = drawCount[phase] > 0 ? drawTotal[phase] / drawCount[phase] : 0;
+
+        listener.onPhaseMetrics(metrics);
+    }
+
+    // Nearest rank of the sorted durations
+    static long getPercentile(@NonNull long[] sorted, int count, int percentile) {
+        if (count <= 0) {
+            return 0;
+        }
+
+        final int rank = (percentile * count + 99) / 100;
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class FrameClock implements Choreographer.FrameCallback {
+        @NonNull private final FrameMetricsDelegate delegate;
+
+        FrameClock(@NonNull FrameMetricsDelegate delegate) {
+            this.delegate = delegate;
+        }
+
+        void post() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void remove() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            delegate.doFrame(frameTimeNanos);
+        }
+    }
+}
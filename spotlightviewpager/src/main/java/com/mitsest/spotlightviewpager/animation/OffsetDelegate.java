@@ -2,12 +2,12 @@ package com.mitsest.spotlightviewpager.animation;
 
 import android.graphics.RectF;
 import android.support.annotation.NonNull;
-import android.support.annotation.Nullable;
 import android.view.View;
 
 public class OffsetDelegate {
     @NonNull private int[] offsetArray;
     private boolean onLayoutRan = false;
+    private boolean offsetChanged = false; // the view moved in its window since the last check
 
     public OffsetDelegate() {
         this.offsetArray = new int[2];
@@ -29,39 +29,51 @@ public class OffsetDelegate {
         return getStartingTop(positionOnScreenArray) - safeArea;
     }
 
-    private float computeStartingRight(@NonNull int[] positionOnScreenArray, int safeArea, @Nullable final View spotlightView) {
-        if (spotlightView == null) {
-            return 0;
-        }
-
-        return getStartingLeft(positionOnScreenArray) + spotlightView.getWidth() + safeArea;
-    }
-
-    private float computeStartingBottom(int[] positionOnScreenArray, int safeArea, @Nullable final View spotlightView) {
-        if (spotlightView == null) {
-            return 0;
-        }
-
-        return getStartingTop(positionOnScreenArray) + spotlightView.getHeight() + safeArea;
-    }
-
     @NonNull public RectF getRectFFromView(@NonNull View spotlightView, int safeArea) {
         int[] positionOnScreen = new int[2];
         spotlightView.getLocationInWindow(positionOnScreen);
 
-        float rectLeft = computeStartingLeft(positionOnScreen, safeArea);
-        float rectRight = computeStartingRight(positionOnScreen, safeArea, spotlightView);
-        float rectTop = computeStartingTop(positionOnScreen, safeArea);
-        float rectBottom = computeStartingBottom(positionOnScreen, safeArea, spotlightView);
+        RectF rectF = new RectF();
+        getRectF(positionOnScreen, spotlightView.getWidth(), spotlightView.getHeight(), safeArea, rectF);
+
+        return rectF;
+    }
+
+    /**
+     * Same as {@link #getRectFFromView(View, int)} for a view snapshot, safe to call off the ui thread
+     */
+    public void getRectF(@NonNull int[] positionOnScreenArray, int width, int height, int safeArea, @NonNull RectF out) {
+        float rectLeft = computeStartingLeft(positionOnScreenArray, safeArea);
+        float rectRight = getStartingLeft(positionOnScreenArray) + width + safeArea;
+        float rectTop = computeStartingTop(positionOnScreenArray, safeArea);
+        float rectBottom = getStartingTop(positionOnScreenArray) + height + safeArea;
 
-        return new RectF(rectLeft, rectTop, rectRight, rectBottom);
+        out.set(rectLeft, rectTop, rectRight, rectBottom);
     }
 
     public void onLayout(@NonNull View v, boolean changed, int left, int top, int right, int bottom) {
+        final int offsetLeft = offsetArray[0];
+        final int offsetTop = offsetArray[1];
+
         v.getLocationInWindow(offsetArray);
+
+        if (onLayoutRan && (offsetLeft != offsetArray[0] || offsetTop != offsetArray[1])) {
+            offsetChanged = true;
+        }
+
         onLayoutRan = true;
     }
 
+    /**
+     * @return true if the view moved in its window since the last call
+     */
+    public boolean consumeOffsetChanged() {
+        final boolean changed = offsetChanged;
+        offsetChanged = false;
+
+        return changed;
+    }
+
     public boolean isOnLayoutRan() {
         return onLayoutRan;
     }
@@ -1,29 +1,45 @@
 package com.mitsest.spotlightviewpager.animation;
 
 import android.animation.ValueAnimator;
+import android.support.annotation.NonNull;
 
-public class OpacityDelegate {
+/**
+ * Fades an alpha value in. The animator is created once and reused for every fade,
+ * each frame computes the alpha straight from the animated fraction.
+ */
+public class OpacityDelegate implements ValueAnimator.AnimatorUpdateListener {
 
     private static final int OPACITY_FULL = 235;
+    @NonNull private final ValueAnimator opacityAnimator;
     private int opacity = 0;
 
+    public OpacityDelegate() {
+        opacityAnimator = ValueAnimator.ofFloat(0f, 1f);
+        opacityAnimator.addUpdateListener(this);
+    }
+
+    /**
+     * @return the same animator on every call, it can only run one fade at a time
+     */
+    @NonNull
     public ValueAnimator getOpacityAnimator() {
-        final ValueAnimator opacityAnim = ValueAnimator.ofInt(0, OPACITY_FULL);
-        opacityAnim.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                try {
-                    opacity = Integer.valueOf(animation.getAnimatedValue().toString());
-                } catch (Exception e) {
-                    //
-                }
-            }
-        });
-
-        return opacityAnim;
+        return opacityAnimator;
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        opacity = (int) (animation.getAnimatedFraction() * OPACITY_FULL);
     }
 
     public int getOpacity() {
         return opacity;
     }
+
+    /**
+     * Stops a running fade and hides
+     */
+    public void reset() {
+        opacityAnimator.cancel();
+        opacity = 0;
+    }
 }
@@ -0,0 +1,86 @@
+package com.mitsest.spotlightviewpager.animation;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Frame timings of one run of an animation phase, reported by {@link FrameMetricsDelegate}.
+ * The same instance is reused for every report, copy what you need before the listener returns.
+ */
+public class PhaseMetrics {
+    public static final int PHASE_BACKGROUND = 0;
+    public static final int PHASE_GROW = 1;
+    public static final int PHASE_PULSE = 2;
+    public static final int PHASE_TEXT = 3;
+    public static final int PHASE_MOVE = 4;
+    public static final int PHASE_CLOSE = 5;
+    public static final int PHASE_RELAYOUT = 6; // the current page following its target after a layout or scroll
+    static final int PHASE_COUNT = 7;
+
+    @Phase int phase;
+    int frameCount;
+    int droppedFrames;
+    long maxFrameNanos;
+    long p50FrameNanos;
+    long p90FrameNanos;
+    long p99FrameNanos;
+    int drawCount;
+    long maxDrawNanos;
+    long averageDrawNanos;
+
+    PhaseMetrics() {
+    }
+
+    @Phase
+    public int getPhase() {
+        return phase;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return vsyncs missed between frames, e.g. a frame that took three refresh intervals dropped two
+     */
+    public int getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public long getMaxFrameNanos() {
+        return maxFrameNanos;
+    }
+
+    public long getP50FrameNanos() {
+        return p50FrameNanos;
+    }
+
+    public long getP90FrameNanos() {
+        return p90FrameNanos;
+    }
+
+    public long getP99FrameNanos() {
+        return p99FrameNanos;
+    }
+
+    /**
+     * @return how many times onDraw ran during the phase
+     */
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    public long getMaxDrawNanos() {
+        return maxDrawNanos;
+    }
+
+    public long getAverageDrawNanos() {
+        return averageDrawNanos;
+    }
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({PHASE_BACKGROUND, PHASE_GROW, PHASE_PULSE, PHASE_TEXT, PHASE_MOVE, PHASE_CLOSE, PHASE_RELAYOUT})
+    public @interface Phase {}
+}
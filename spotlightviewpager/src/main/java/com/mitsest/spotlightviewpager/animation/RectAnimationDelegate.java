@@ -0,0 +1,205 @@
+package com.mitsest.spotlightviewpager.animation;
+
+import android.animation.Animator;
+import android.animation.ValueAnimator;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.view.animation.Interpolator;
+
+import java.util.Arrays;
+
+/**
+ * Animates the bounds of a rectangle between two other rectangles.
+ * The same animators are reused for every animation and each frame writes straight into the target's fields,
+ * so no object is allocated and no property is looked up by reflection while animating.
+ *
+ * A running animation can be retargeted (see {@link #setRetarget}): the next one starts where the rectangle
+ * is drawn and at the speed it is moving, so the motion does not stop or jump when the user navigates mid-flight.
+ */
+public class RectAnimationDelegate implements ValueAnimator.AnimatorUpdateListener {
+    private static final int MODE_TWEEN = 0; // from -> to
+    private static final int MODE_PULSE = 1; // from -> to -> from
+    private static final int MODE_RETARGET = 2; // from -> to along a cubic hermite curve, starting at startVelocity
+
+    // Phases are chained from the end callback of the previous one. Restarting an animator from its own
+    // end callback is not safe before N, so consecutive animations alternate between two animators.
+    @NonNull private final ValueAnimator[] animators = new ValueAnimator[2];
+    private int current = 0;
+    @NonNull private final View view;
+    @Nullable private final DirtyRegionDelegate dirtyRegion;
+
+    @NonNull private final RectF from = new RectF();
+    @NonNull private final RectF to = new RectF();
+    @Nullable private RectF target;
+    private int mode = MODE_TWEEN;
+    private int durationMs;
+
+    // Edges are left, top, right, bottom. Velocities are in px per ms.
+    @NonNull private final float[] velocity = new float[4]; // of the target, measured between the last two frames
+    @NonNull private final float[] startVelocity = new float[4]; // MODE_RETARGET only
+    @NonNull private final float[] previousEdges = new float[4];
+    private long previousPlayTime = -1;
+
+    /**
+     * @param view: parent view (the one that draws on canvas)
+     * @param dirtyRegion: limits each frame's invalidation to the changed region, null redraws the whole view
+     * @param listener: receives the start and end of every animation run by this delegate
+     */
+    public RectAnimationDelegate(@NonNull View view, @Nullable DirtyRegionDelegate dirtyRegion, @NonNull Animator.AnimatorListener listener) {
+        this.view = view;
+        this.dirtyRegion = dirtyRegion;
+
+        for (int i = 0; i < animators.length; i++) {
+            animators[i] = ValueAnimator.ofFloat(0f, 1f);
+            animators[i].addUpdateListener(this);
+            animators[i].addListener(listener);
+        }
+    }
+
+    /**
+     * Prepares target to be animated from -> to. Both rectangles are copied, so target may be one of them.
+     */
+    public void setTween(@NonNull RectF target, @NonNull RectF from, @NonNull RectF to) {
+        this.from.set(from);
+        this.to.set(to);
+        this.target = target;
+        this.mode = MODE_TWEEN;
+    }
+
+    /**
+     * Prepares target to grow by size on each side and shrink back to its current bounds.
+     */
+    public void setPulse(@NonNull RectF target, float size) {
+        this.from.set(target);
+        this.to.set(target);
+        this.to.inset(-size, -size);
+        this.target = target;
+        this.mode = MODE_PULSE;
+    }
+
+    /**
+     * Prepares target to be animated from -> to, starting at the velocity of the animation that is running now
+     * (none if it isn't running). Has to be called before the running animation is cancelled.
+     * Pass a linear interpolator to {@link #start}, the curve eases out by itself.
+     */
+    public void setRetarget(@NonNull RectF target, @NonNull RectF from, @NonNull RectF to) {
+        if (isRunning()) {
+            System.arraycopy(velocity, 0, startVelocity, 0, velocity.length);
+        } else {
+            Arrays.fill(startVelocity, 0);
+        }
+
+        this.from.set(from);
+        this.to.set(to);
+        this.target = target;
+        this.mode = MODE_RETARGET;
+    }
+
+    public void start(int durationMs, @NonNull Interpolator interpolator) {
+        current = (current + 1) % animators.length;
+
+        final ValueAnimator animator = animators[current];
+        animator.setDuration(durationMs);
+        animator.setInterpolator(interpolator);
+        this.durationMs = durationMs;
+
+        Arrays.fill(velocity, 0);
+        applyFraction(0f);
+        setPreviousEdges(0);
+        animator.start();
+    }
+
+    public void cancel() {
+        animators[current].cancel();
+    }
+
+    public boolean isRunning() {
+        return animators[current].isStarted();
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        applyFraction(animation.getAnimatedFraction());
+        measureVelocity(animation.getCurrentPlayTime());
+    }
+
+    private void measureVelocity(long playTime) {
+        if (target == null || playTime <= previousPlayTime) {
+            return;
+        }
+
+        if (previousPlayTime >= 0) {
+            final float elapsed = playTime - previousPlayTime;
+            velocity[0] = (target.left - previousEdges[0]) / elapsed;
+            velocity[1] = (target.top - previousEdges[1]) / elapsed;
+            velocity[2] = (target.right - previousEdges[2]) / elapsed;
+            velocity[3] = (target.bottom - previousEdges[3]) / elapsed;
+        }
+
+        setPreviousEdges(playTime);
+    }
+
+    private void setPreviousEdges(long playTime) {
+        if (target == null) {
+            return;
+        }
+
+        previousEdges[0] = target.left;
+        previousEdges[1] = target.top;
+        previousEdges[2] = target.right;
+        previousEdges[3] = target.bottom;
+        previousPlayTime = playTime;
+    }
+
+    /**
+     * @param fraction: interpolated fraction, may be out of [0, 1] for overshooting interpolators
+     */
+    public void applyFraction(float fraction) {
+        if (target == null) {
+            return;
+        }
+
+        if (mode == MODE_RETARGET) {
+            applyHermite(fraction);
+        } else {
+            if (mode == MODE_PULSE) {
+                fraction = fraction <= 0.5f ? fraction * 2 : 2 - fraction * 2;
+            }
+
+            target.left = from.left + (to.left - from.left) * fraction;
+            target.top = from.top + (to.top - from.top) * fraction;
+            target.right = from.right + (to.right - from.right) * fraction;
+            target.bottom = from.bottom + (to.bottom - from.bottom) * fraction;
+        }
+
+        if (dirtyRegion != null) {
+            dirtyRegion.invalidate(view);
+        } else {
+            view.postInvalidate();
+        }
+    }
+
+    /**
+     * Cubic hermite from -> to: leaves from at startVelocity and arrives at to with no velocity
+     *
+     * @param t: linear time fraction
+     */
+    private void applyHermite(float t) {
+        if (target == null) {
+            return;
+        }
+
+        final float t2 = t * t;
+        final float t3 = t2 * t;
+        final float fromWeight = 2 * t3 - 3 * t2 + 1;
+        final float velocityWeight = (t3 - 2 * t2 + t) * durationMs;
+        final float toWeight = -2 * t3 + 3 * t2;
+
+        target.left = fromWeight * from.left + velocityWeight * startVelocity[0] + toWeight * to.left;
+        target.top = fromWeight * from.top + velocityWeight * startVelocity[1] + toWeight * to.top;
+        target.right = fromWeight * from.right + velocityWeight * startVelocity[2] + toWeight * to.right;
+        target.bottom = fromWeight * from.bottom + velocityWeight * startVelocity[3] + toWeight * to.bottom;
+    }
+}
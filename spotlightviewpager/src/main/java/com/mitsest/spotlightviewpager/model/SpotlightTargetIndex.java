@@ -0,0 +1,158 @@
+package com.mitsest.spotlightviewpager.model;
+
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.Px;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over the view, every cell lists the pages whose resting bounds overlap it.
+ * A tap only looks at the pages of the cell under it instead of walking the whole tour,
+ * and a page that moved is only taken out of its old cells and put in its new ones.
+ *
+ * Pages are keyed by identity, RectF's equals and hashCode follow the animated bounds.
+ * Must be used from the ui thread.
+ */
+public class SpotlightTargetIndex {
+    private static final int COLUMNS = 8;
+
+    @NonNull private final List<List<SpotlightViewModel>> cells = new ArrayList<>();
+    @NonNull private final Map<SpotlightViewModel, Rect> cellRanges = new IdentityHashMap<>(); // [left, right] x [top, bottom]
+    @NonNull private final RectF bounds = new RectF(); // Used to read resting bounds without allocating
+
+    @Px private int width;
+    @Px private int height;
+    @Px private int cellSize;
+    private int rows;
+
+    /**
+     * Sizes the grid to the view, pages already indexed are put in the cells of the new grid
+     */
+    public void setSize(@Px int width, @Px int height) {
+        if (width == this.width && height == this.height) {
+            return;
+        }
+
+        this.width = width;
+        this.height = height;
+        this.cellSize = Math.max(1, (width + COLUMNS - 1) / COLUMNS);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+
+        cells.clear();
+        for (int i = 0; i < COLUMNS * rows; i++) {
+            cells.add(new ArrayList<SpotlightViewModel>(2));
+        }
+
+        for (Map.Entry<SpotlightViewModel, Rect> entry : cellRanges.entrySet()) {
+            entry.getKey().getBounds(bounds);
+            setCellRange(bounds, entry.getValue());
+            addToCells(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Indexes viewModel at its resting bounds, or moves it there if it was indexed already
+     */
+    public void update(@NonNull SpotlightViewModel viewModel) {
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        Rect range = cellRanges.get(viewModel);
+        if (range == null) {
+            range = new Rect();
+            cellRanges.put(viewModel, range);
+        } else {
+            removeFromCells(viewModel, range);
+        }
+
+        viewModel.getBounds(bounds);
+        setCellRange(bounds, range);
+        addToCells(viewModel, range);
+    }
+
+    public void remove(@NonNull SpotlightViewModel viewModel) {
+        final Rect range = cellRanges.remove(viewModel);
+        if (range != null) {
+            removeFromCells(viewModel, range);
+        }
+    }
+
+    /**
+     * @return the smallest indexed page whose resting bounds contain (x, y), null if there is none
+     */
+    @Nullable
+    public SpotlightViewModel findTarget(float x, float y) {
+        if (cells.isEmpty() || x < 0 || y < 0 || x >= width || y >= height) {
+            return null;
+        }
+
+        final List<SpotlightViewModel> cell = cells.get(getRow(y) * COLUMNS + getColumn(x));
+
+        SpotlightViewModel target = null;
+        float targetArea = Float.MAX_VALUE;
+
+        for (int i = 0; i < cell.size(); i++) {
+            final SpotlightViewModel viewModel = cell.get(i);
+            viewModel.getBounds(bounds);
+
+            // Nested targets: the innermost one is the one that was tapped
+            final float area = bounds.width() * bounds.height();
+            if (bounds.contains(x, y) && area < targetArea) {
+                target = viewModel;
+                targetArea = area;
+            }
+        }
+
+        return target;
+    }
+
+    public void clear() {
+        for (int i = 0; i < cells.size(); i++) {
+            cells.get(i).clear();
+        }
+
+        cellRanges.clear();
+    }
+
+    private void setCellRange(@NonNull RectF bounds, @NonNull Rect out) {
+        out.set(getColumn(bounds.left), getRow(bounds.top), getColumn(bounds.right), getRow(bounds.bottom));
+    }
+
+    private void addToCells(@NonNull SpotlightViewModel viewModel, @NonNull Rect range) {
+        for (int row = range.top; row <= range.bottom; row++) {
+            for (int column = range.left; column <= range.right; column++) {
+                cells.get(row * COLUMNS + column).add(viewModel);
+            }
+        }
+    }
+
+    private void removeFromCells(@NonNull SpotlightViewModel viewModel, @NonNull Rect range) {
+        for (int row = range.top; row <= range.bottom; row++) {
+            for (int column = range.left; column <= range.right; column++) {
+                final List<SpotlightViewModel> cell = cells.get(row * COLUMNS + column);
+
+                for (int i = cell.size() - 1; i >= 0; i--) {
+                    if (cell.get(i) == viewModel) {
+                        cell.remove(i);
+                    }
+                }
+            }
+        }
+    }
+
+    // Bounds partly off screen are clamped to the border cells
+    private int getColumn(float x) {
+        return Math.max(0, Math.min(COLUMNS - 1, (int) (x / cellSize)));
+    }
+
+    private int getRow(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) (y / cellSize)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.mitsest.spotlightviewpager.model;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+import android.view.View;
+
+import com.mitsest.spotlightviewpager.paint.SpotlightTextPaint;
+
+import java.util.List;
+
+/**
+ * The pages of the tour SpotlightView is showing, by index. A tour is either built from a list,
+ * with every page loaded and linked to its neighbours, or paged from a {@link SpotlightTourSource}
+ * that is asked for a page the first time it is needed.
+ */
+public class SpotlightTour {
+    @Nullable private final SpotlightTourSource source;
+    @NonNull private final SparseArray<SpotlightViewModel> pages;
+    @NonNull private final SpotlightTextPaint textPaint;
+    private final int count;
+
+    public SpotlightTour(@NonNull List<SpotlightViewModel> models, @NonNull SpotlightTextPaint textPaint) {
+        this.source = null;
+        this.textPaint = textPaint;
+        this.count = models.size();
+        this.pages = new SparseArray<>(count);
+
+        for (int i = 0; i < count; i++) {
+            final SpotlightViewModel viewModel = models.get(i);
+            setUp(viewModel, i);
+
+            if (i <= count - 2) {
+                viewModel.setNext(models.get(i + 1));
+            }
+
+            pages.put(i, viewModel);
+        }
+    }
+
+    public SpotlightTour(@NonNull SpotlightTourSource source, @NonNull SpotlightTextPaint textPaint) {
+        this.source = source;
+        this.textPaint = textPaint;
+        this.count = source.getCount();
+        this.pages = new SparseArray<>();
+    }
+
+    private void setUp(@NonNull SpotlightViewModel viewModel, int index) {
+        viewModel.setTextPaint(textPaint);
+        viewModel.setNumberOfPages(count);
+        viewModel.setPage(index + 1);
+    }
+
+    /**
+     * @return true if pages come from a {@link SpotlightTourSource} and may be evicted
+     */
+    public boolean isPaged() {
+        return source != null;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the page at index, asked from the source if it is not loaded, null if index is out of range
+     */
+    @Nullable
+    public SpotlightViewModel get(int index) {
+        if (index < 0 || index >= count) {
+            return null;
+        }
+
+        SpotlightViewModel viewModel = pages.get(index);
+        if (viewModel == null && source != null) {
+            viewModel = source.getModel(index);
+            setUp(viewModel, index);
+            pages.put(index, viewModel);
+        }
+
+        return viewModel;
+    }
+
+    /**
+     * @return index of the loaded page that highlights targetView, -1 if there is none
+     */
+    public int indexOf(@NonNull View targetView) {
+        for (int i = 0; i < pages.size(); i++) {
+            if (pages.valueAt(i).getTargetView() == targetView) {
+                return pages.keyAt(i);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return false if viewModel is not a page of this tour or was evicted
+     */
+    public boolean isLoaded(@NonNull SpotlightViewModel viewModel) {
+        return pages.get(viewModel.getPage() - 1) == viewModel;
+    }
+
+    public int getLoadedCount() {
+        return pages.size();
+    }
+
+    /**
+     * @param position: 0 to {@link #getLoadedCount()}, loaded pages are in index order
+     */
+    @NonNull
+    public SpotlightViewModel getLoadedAt(int position) {
+        return pages.valueAt(position);
+    }
+
+    /**
+     * Drops the page at index, a paged tour asks its source for it again when it is needed
+     */
+    public void evict(int index) {
+        if (source != null) {
+            pages.remove(index);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.mitsest.spotlightviewpager.model;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Hands the pages of a tour to SpotlightView as the user gets to them, instead of building them all up front.
+ * Only the pages around the current one are kept, pages the user has moved away from are dropped
+ * and asked for again if the user comes back to them.
+ */
+public interface SpotlightTourSource {
+    int getCount();
+
+    /**
+     * Called on the ui thread
+     *
+     * @param index: 0 based
+     */
+    @NonNull
+    SpotlightViewModel getModel(int index);
+}
@@ -1,18 +1,24 @@
 package com.mitsest.spotlightviewpager.model;
 
-import android.animation.ValueAnimator;
 import android.graphics.Canvas;
 import android.graphics.RectF;
 import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.annotation.Px;
 import android.view.View;
 
+import com.mitsest.spotlightviewpager.animation.OffsetDelegate;
+import com.mitsest.spotlightviewpager.paint.SpotlightShape;
+import com.mitsest.spotlightviewpager.paint.SpotlightTextLayout;
 import com.mitsest.spotlightviewpager.paint.SpotlightTextPaint;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class SpotlightViewModel extends RectF {
     public static final int TEXT_TOP = 0;
@@ -23,8 +29,30 @@ public class SpotlightViewModel extends RectF {
     @NonNull private final String title;
     @Nullable private final WeakReference<View> targetView;
     @NonNull private final SubtitleModel subtitle;
-    @NonNull private final SpotlightTextPaint textPaint;
+    @Nullable private SpotlightTextPaint textPaint; // Shared by every page of the tour, set by SpotlightView
+    @NonNull private final SpotlightTextLayout textLayout = new SpotlightTextLayout();
     @Nullable private final ISpotlightViewModel listener;
+    @Nullable private SpotlightShape shape; // null uses the view's shape
+
+    @NonNull private final RectF bounds = new RectF(); // Where the spotlight rests, text is placed against it
+    @NonNull private final int[] targetLocation = new int[2]; // Target view snapshot, see snapshotTarget()
+    @NonNull private final int[] currentLocation = new int[2]; // Used by hasTargetMoved() without allocating
+    @Px private int targetWidth;
+    @Px private int targetHeight;
+
+    // Pages with more than one target: the spotlight bounds are the union of every target and each target
+    // gets its own hole, kept as fractions of the bounds so that holes follow the spotlight when it grows, pulses or moves
+    @NonNull private final List<WeakReference<View>> otherTargetViews = new ArrayList<>(0);
+    @NonNull private int[] otherTargetSnapshots = new int[0]; // x, y, width, height of every other target
+    @NonNull private float[] holes = new float[0]; // left, top, right, bottom fractions of every hole, the first one is targetView's
+    @NonNull private final RectF hole = new RectF(); // Used by prepare() without allocating
+    @NonNull private final int[] otherTargetLocation = new int[2]; // Used by prepare() without allocating
+    private boolean targetSnapshotTaken = false;
+    private volatile boolean prepared = false; // Bounds are set and text is laid out, the page can be drawn
+    private boolean placed = false; // Bounds are set, the text may still be laid out
+    private int generation = 0; // Bumped by every snapshot and placement, text laid out for an older one does not prepare the page
+    @NonNull private final RectF textBounds = new RectF(); // bounds the text is laid out against, copied under the lock
+    @NonNull private final Object textLock = new Object(); // one text layout at a time, without holding the page's lock
 
     @Gravity private int textPosition;
 
@@ -39,7 +67,6 @@ public class SpotlightViewModel extends RectF {
         this.next = next;
         this.title = title;
         this.subtitle = subtitle;
-        this.textPaint = new SpotlightTextPaint(targetView.getContext());
         this.targetView = new WeakReference<>(targetView);
         this.listener = listener;
     }
@@ -58,6 +85,27 @@ public class SpotlightViewModel extends RectF {
     }
 
 
+    /**
+     * Highlights targetView too, on the same page. Has to be called before the tour is shown.
+     */
+    public void addTargetView(@NonNull View targetView) {
+        otherTargetViews.add(new WeakReference<>(targetView));
+        otherTargetSnapshots = Arrays.copyOf(otherTargetSnapshots, otherTargetViews.size() * 4);
+        holes = Arrays.copyOf(holes, (otherTargetViews.size() + 1) * 4);
+    }
+
+    @Nullable
+    public SpotlightShape getShape() {
+        return shape;
+    }
+
+    /**
+     * @param shape: outline of this page's holes, null to use the view's shape (a round rect by default)
+     */
+    public void setShape(@Nullable SpotlightShape shape) {
+        this.shape = shape;
+    }
+
     @NonNull
     public SubtitleModel getSubtitle() {
         return subtitle;
@@ -111,12 +159,289 @@ public class SpotlightViewModel extends RectF {
 
 
     public void setRectF(@NonNull RectF r) {
+        synchronized (textLock) {
+            final int preparing;
+            synchronized (this) {
+                setBounds(r);
+                placed = true;
+                textBounds.set(bounds);
+                preparing = generation;
+            }
+
+            setText(preparing);
+        }
+    }
+
+    /**
+     * Writes where the spotlight rests into out, the model's own bounds are the animated ones
+     */
+    public synchronized void getBounds(@NonNull RectF out) {
+        out.set(bounds);
+    }
+
+    /**
+     * Puts the animated bounds back where the spotlight rests, after an animation of this page was interrupted
+     */
+    public synchronized void restoreBounds() {
+        set(bounds);
+    }
+
+    /**
+     * Places the spotlight without laying out its text
+     */
+    public void setBounds(@NonNull RectF r) {
+        this.bounds.set(r);
+
         this.left = r.left;
         this.right = r.right;
         this.top = r.top;
         this.bottom = r.bottom;
+    }
+
+    /**
+     * First preparation stage, reads where the target view is. Has to run on the ui thread.
+     *
+     * @return false if the target view is gone
+     */
+    public boolean snapshotTarget() {
+        final View view = getTargetView();
+        if (view == null) {
+            return false;
+        }
+
+        synchronized (this) {
+            view.getLocationInWindow(targetLocation);
+            targetWidth = view.getWidth();
+            targetHeight = view.getHeight();
+
+            for (int i = 0; i < otherTargetViews.size(); i++) {
+                snapshotOtherTarget(i);
+            }
+
+            targetSnapshotTaken = true;
+            generation++;
+            placed = false;
+            prepared = false;
+        }
+
+        return true;
+    }
+
+    private void snapshotOtherTarget(int index) {
+        final View view = otherTargetViews.get(index).get();
+        final int offset = index * 4;
+
+        if (view == null) {
+            // A target that is gone leaves an empty hole behind
+            Arrays.fill(otherTargetSnapshots, offset, offset + 4, 0);
+            return;
+        }
+
+        view.getLocationInWindow(currentLocation);
+        otherTargetSnapshots[offset] = currentLocation[0];
+        otherTargetSnapshots[offset + 1] = currentLocation[1];
+        otherTargetSnapshots[offset + 2] = view.getWidth();
+        otherTargetSnapshots[offset + 3] = view.getHeight();
+    }
+
+    private boolean hasOtherTargetMoved(int index) {
+        final View view = otherTargetViews.get(index).get();
+        if (view == null) {
+            return false;
+        }
+
+        view.getLocationInWindow(currentLocation);
+        final int offset = index * 4;
+
+        return currentLocation[0] != otherTargetSnapshots[offset]
+                || currentLocation[1] != otherTargetSnapshots[offset + 1]
+                || view.getWidth() != otherTargetSnapshots[offset + 2]
+                || view.getHeight() != otherTargetSnapshots[offset + 3];
+    }
+
+    /**
+     * Compares the target view with its snapshot. Has to run on the ui thread.
+     *
+     * @return true if the target view was snapshot and has since moved or been resized
+     */
+    public boolean hasTargetMoved() {
+        final View view = getTargetView();
+        if (view == null) {
+            return false;
+        }
+
+        view.getLocationInWindow(currentLocation);
+
+        synchronized (this) {
+            if (!targetSnapshotTaken) {
+                return false;
+            }
+
+            if (currentLocation[0] != targetLocation[0]
+                    || currentLocation[1] != targetLocation[1]
+                    || view.getWidth() != targetWidth
+                    || view.getHeight() != targetHeight) {
+                return true;
+            }
+
+            for (int i = 0; i < otherTargetViews.size(); i++) {
+                if (hasOtherTargetMoved(i)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Forgets the target snapshot, so the page is prepared again the next time it is shown
+     */
+    public synchronized void resetPreparation() {
+        targetSnapshotTaken = false;
+        generation++;
+        placed = false;
+        prepared = false;
+    }
+
+    /**
+     * @return a number that changes every time the target is snapshot or the page is placed, so every time its holes may have moved
+     */
+    public synchronized int getGeneration() {
+        return generation;
+    }
 
-        this.setText();
+    public synchronized boolean hasTargetSnapshot() {
+        return targetSnapshotTaken;
+    }
+
+    /**
+     * Places the spotlight and its holes from the target snapshot, without laying out the text.
+     * Cheap enough for the ui thread, and never waits for a text layout in progress.
+     * Does nothing if the page is already placed or was never snapshot.
+     */
+    public synchronized void place(@NonNull OffsetDelegate offsetDelegate, @Px int safeArea) {
+        if (placed || !targetSnapshotTaken) {
+            return;
+        }
+
+        offsetDelegate.getRectF(targetLocation, targetWidth, targetHeight, safeArea, bounds);
+
+        if (!otherTargetViews.isEmpty()) {
+            prepareHoles(offsetDelegate, safeArea);
+        }
+
+        setBounds(bounds);
+        placed = true;
+        generation++; // the holes moved
+    }
+
+    /**
+     * Second preparation stage, places the spotlight if it is not yet and lays out its text from the target snapshot.
+     * Safe to call off the ui thread, does nothing if the page is already prepared.
+     * The page's lock is only held while placing, not while the text is laid out.
+     */
+    public void prepare(@NonNull OffsetDelegate offsetDelegate, @Px int safeArea) {
+        synchronized (textLock) {
+            final int preparing;
+            synchronized (this) {
+                if (prepared) {
+                    return;
+                }
+
+                place(offsetDelegate, safeArea);
+                if (!placed) {
+                    return;
+                }
+
+                textBounds.set(bounds);
+                preparing = generation;
+            }
+
+            setText(preparing);
+        }
+    }
+
+    /**
+     * Grows bounds to the union of every target and stores each target's hole relative to it
+     */
+    private void prepareHoles(@NonNull OffsetDelegate offsetDelegate, @Px int safeArea) {
+        for (int i = 0; i < otherTargetViews.size(); i++) {
+            if (getOtherTargetRect(i, offsetDelegate, safeArea)) {
+                bounds.union(hole);
+            }
+        }
+
+        // Second pass, now that the union is known
+        offsetDelegate.getRectF(targetLocation, targetWidth, targetHeight, safeArea, hole);
+        setHole(0, hole);
+
+        for (int i = 0; i < otherTargetViews.size(); i++) {
+            if (!getOtherTargetRect(i, offsetDelegate, safeArea)) {
+                hole.setEmpty();
+            }
+
+            setHole(i + 1, hole);
+        }
+    }
+
+    /**
+     * Writes the rect of other target index into hole
+     *
+     * @return false if the target was gone when it was snapshot
+     */
+    private boolean getOtherTargetRect(int index, @NonNull OffsetDelegate offsetDelegate, @Px int safeArea) {
+        final int offset = index * 4;
+        if (otherTargetSnapshots[offset + 2] == 0 && otherTargetSnapshots[offset + 3] == 0) {
+            return false;
+        }
+
+        otherTargetLocation[0] = otherTargetSnapshots[offset];
+        otherTargetLocation[1] = otherTargetSnapshots[offset + 1];
+        offsetDelegate.getRectF(otherTargetLocation, otherTargetSnapshots[offset + 2], otherTargetSnapshots[offset + 3], safeArea, hole);
+
+        return true;
+    }
+
+    private void setHole(int index, @NonNull RectF rect) {
+        final int offset = index * 4;
+        if (rect.isEmpty()) {
+            Arrays.fill(holes, offset, offset + 4, 0);
+            return;
+        }
+
+        final float width = Math.max(1, bounds.width());
+        final float height = Math.max(1, bounds.height());
+
+        holes[offset] = (rect.left - bounds.left) / width;
+        holes[offset + 1] = (rect.top - bounds.top) / height;
+        holes[offset + 2] = (rect.right - bounds.left) / width;
+        holes[offset + 3] = (rect.bottom - bounds.top) / height;
+    }
+
+    /**
+     * @return number of holes of a page with more than one target, 0 if the page is a single hole (its own bounds)
+     */
+    public int getHoleCount() {
+        return otherTargetViews.isEmpty() ? 0 : otherTargetViews.size() + 1;
+    }
+
+    /**
+     * Writes hole index, placed in the current (animated) bounds, into out. Holes of targets that are gone are empty.
+     */
+    public void getHole(int index, @NonNull RectF out) {
+        final int offset = index * 4;
+        final float width = width();
+        final float height = height();
+
+        out.set(left + holes[offset] * width,
+                top + holes[offset + 1] * height,
+                left + holes[offset + 2] * width,
+                top + holes[offset + 3] * height);
+    }
+
+    public boolean isPrepared() {
+        return prepared;
     }
 
     @Nullable
@@ -136,8 +461,12 @@ public class SpotlightViewModel extends RectF {
         subtitle.setMaxLines(lineCount);
     }
 
-    private void setTextPosition() {
-        boolean fitsBottom = textPaint.textFitsBottom(this);
+    public void setTextPaint(@NonNull SpotlightTextPaint textPaint) {
+        this.textPaint = textPaint;
+    }
+
+    private void setTextPosition(@NonNull SpotlightTextPaint textPaint) {
+        boolean fitsBottom = textPaint.textFitsBottom(textLayout, textBounds);
 
         if (!fitsBottom) {
             setTextPosition(TEXT_TOP);
@@ -147,37 +476,58 @@ public class SpotlightViewModel extends RectF {
     }
 
     public void drawText(Canvas canvas) {
-        textPaint.drawText(canvas, this);
+        if (prepared && textPaint != null) {
+            textPaint.drawText(canvas, textLayout, this);
+        }
     }
 
-    private void setText() {
-        setTextPosition();
-        textPaint.setText(this);
+    public void getTextBounds(@NonNull RectF out) {
+        if (prepared && textPaint != null) {
+            textPaint.getTextBounds(textLayout, this, out);
+        } else {
+            out.setEmpty();
+        }
+    }
+
+    /**
+     * Lays out the text against textBounds, holding textLock
+     *
+     * @param preparing: generation textBounds were copied for, the page is not prepared if it was snapshot since
+     */
+    private void setText(int preparing) {
+        final SpotlightTextPaint textPaint = this.textPaint;
+        if (textPaint == null) {
+            return;
+        }
+
+        setTextPosition(textPaint);
+        textPaint.setText(textLayout, this, textBounds);
+
+        synchronized (this) {
+            prepared = preparing == generation;
+        }
     }
 
     public void setMaxWidth(int width) {
-        textPaint.setMaxWidth(width);
+        textLayout.setMaxWidth(width);
     }
 
     public void setMaxBottom(int bottom) {
-        textPaint.setMaxBottom(bottom);
+        textLayout.setMaxBottom(bottom);
     }
 
     public void setPage(int page) {
-        textPaint.setPage(page);
+        textLayout.setPage(page);
     }
 
     public void setNumberOfPages(int numberOfPages) {
-        textPaint.setNumberOfPages(numberOfPages);
+        textLayout.setNumberOfPages(numberOfPages);
     }
 
     public int getNumberOfPages() {
-        return textPaint.getNumberOfPages();
+        return textLayout.getNumberOfPages();
     }
 
-    public ValueAnimator getTextOpacityAnimation() {
-        return textPaint.getTextOpacityAnimation();
-    }
     @Gravity
     public int getTextPosition() {
         return textPosition;
@@ -188,11 +538,7 @@ public class SpotlightViewModel extends RectF {
     }
 
     public int getPage() {
-        return textPaint.getPage();
-    }
-
-    public void resetTextPaint() {
-        textPaint.reset();
+        return textLayout.getPage();
     }
 
     public void onBeforePageChanged() {
@@ -0,0 +1,149 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Px;
+import android.util.LruCache;
+
+/**
+ * The blurred glow around the spotlight border, rendered once into a bitmap and drawn nine patch style:
+ * the corners are copied as they are and the edges are stretched to the size of the spotlight.
+ * Blurring a round rect on every frame is the most expensive part of onDraw, copying a bitmap is not,
+ * and unlike BlurMaskFilter it also works on hardware layers before P.
+ *
+ * Bitmaps are shared by every view and keyed by the corner radius, stroke size, blur radius and color they were drawn with.
+ */
+class BorderGlow {
+    private static final int MAX_SIZE = 4; // bitmaps
+
+    @NonNull private static final LruCache<Key, Bitmap> bitmaps = new LruCache<>(MAX_SIZE);
+
+    @NonNull private final Paint bitmapPaint;
+    @NonNull private final Rect src = new Rect();
+    @NonNull private final RectF dst = new RectF();
+
+    @Px private final int margin; // how far the glow is drawn outside of the spotlight
+    @Px private final int corner; // size of each corner slice, the edge slices are 1px wide
+    @NonNull private final Bitmap bitmap;
+
+    BorderGlow(@Px int radius, @Px int borderSize, @Px int blurRadius, @ColorInt int color) {
+        bitmapPaint = new Paint();
+        bitmapPaint.setFilterBitmap(true);
+        bitmapPaint.setDither(true);
+
+        // An OUTER blur fades out at roughly twice its radius
+        margin = borderSize + blurRadius * 2 + 1;
+        corner = margin + radius;
+
+        final Key key = new Key(radius, borderSize, blurRadius, color);
+        synchronized (bitmaps) {
+            Bitmap cached = bitmaps.get(key);
+            if (cached == null) {
+                cached = render(radius, borderSize, blurRadius, color);
+                bitmaps.put(key, cached);
+            }
+
+            bitmap = cached;
+        }
+    }
+
+    @NonNull
+    private Bitmap render(@Px int radius, @Px int borderSize, @Px int blurRadius, @ColorInt int color) {
+        final int size = corner * 2 + 1;
+        final Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+
+        final Paint paint = new Paint();
+        paint.setStyle(Paint.Style.FILL_AND_STROKE);
+        paint.setAntiAlias(true);
+        paint.setDither(true);
+        paint.setStrokeWidth(borderSize);
+        paint.setMaskFilter(new BlurMaskFilter(blurRadius, BlurMaskFilter.Blur.OUTER));
+        paint.setColor(color);
+
+        // Bitmap canvases are always software, so the mask filter applies on every api level
+        new Canvas(bitmap).drawRoundRect(new RectF(margin, margin, size - margin, size - margin), radius, radius, paint);
+
+        return bitmap;
+    }
+
+    void draw(@NonNull Canvas canvas, @NonNull RectF rect) {
+        final int size = bitmap.getWidth();
+        final float left = rect.left - margin;
+        final float top = rect.top - margin;
+        final float right = rect.right + margin;
+        final float bottom = rect.bottom + margin;
+
+        if (right - left < corner * 2 || bottom - top < corner * 2) {
+            // Smaller than its corners (e.g. while growing), scale the whole glow
+            dst.set(left, top, right, bottom);
+            canvas.drawBitmap(bitmap, null, dst, bitmapPaint);
+            return;
+        }
+
+        // Corners
+        drawSlice(canvas, 0, 0, corner, corner, left, top, left + corner, top + corner);
+        drawSlice(canvas, corner + 1, 0, size, corner, right - corner, top, right, top + corner);
+        drawSlice(canvas, 0, corner + 1, corner, size, left, bottom - corner, left + corner, bottom);
+        drawSlice(canvas, corner + 1, corner + 1, size, size, right - corner, bottom - corner, right, bottom);
+
+        // Edges, the middle is left out since an OUTER blur does not draw inside the shape
+        drawSlice(canvas, corner, 0, corner + 1, corner, left + corner, top, right - corner, top + corner);
+        drawSlice(canvas, corner, corner + 1, corner + 1, size, left + corner, bottom - corner, right - corner, bottom);
+        drawSlice(canvas, 0, corner, corner, corner + 1, left, top + corner, left + corner, bottom - corner);
+        drawSlice(canvas, corner + 1, corner, size, corner + 1, right - corner, top + corner, right, bottom - corner);
+    }
+
+    private void drawSlice(@NonNull Canvas canvas,
+                           int srcLeft, int srcTop, int srcRight, int srcBottom,
+                           float dstLeft, float dstTop, float dstRight, float dstBottom) {
+        src.set(srcLeft, srcTop, srcRight, srcBottom);
+        dst.set(dstLeft, dstTop, dstRight, dstBottom);
+        canvas.drawBitmap(bitmap, src, dst, bitmapPaint);
+    }
+
+    private static final class Key {
+        private final int radius;
+        private final int borderSize;
+        private final int blurRadius;
+        private final int color;
+
+        Key(int radius, int borderSize, int blurRadius, int color) {
+            this.radius = radius;
+            this.borderSize = borderSize;
+            this.blurRadius = blurRadius;
+            this.color = color;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return radius == key.radius
+                    && borderSize == key.borderSize
+                    && blurRadius == key.blurRadius
+                    && color == key.color;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = radius;
+            result = 31 * result + borderSize;
+            result = 31 * result + blurRadius;
+            result = 31 * result + color;
+            return result;
+        }
+    }
+}
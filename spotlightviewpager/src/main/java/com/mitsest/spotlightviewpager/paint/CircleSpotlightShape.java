@@ -0,0 +1,26 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * The largest circle centered in the spotlight bounds, for square targets such as a fab or an avatar
+ */
+public class CircleSpotlightShape extends SpotlightShape {
+    @Override
+    protected void addToPath(@NonNull Path out, @NonNull RectF rect, float radius) {
+        out.addCircle(rect.centerX(), rect.centerY(), getCircleRadius(rect), Path.Direction.CW);
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas, @NonNull RectF rect, float radius, @NonNull Paint paint) {
+        canvas.drawCircle(rect.centerX(), rect.centerY(), getCircleRadius(rect), paint);
+    }
+
+    private static float getCircleRadius(@NonNull RectF rect) {
+        return Math.min(rect.width(), rect.height()) / 2;
+    }
+}
@@ -0,0 +1,22 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * The oval inscribed in the spotlight bounds
+ */
+public class OvalSpotlightShape extends SpotlightShape {
+    @Override
+    protected void addToPath(@NonNull Path out, @NonNull RectF rect, float radius) {
+        out.addOval(rect, Path.Direction.CW);
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas, @NonNull RectF rect, float radius, @NonNull Paint paint) {
+        canvas.drawOval(rect, paint);
+    }
+}
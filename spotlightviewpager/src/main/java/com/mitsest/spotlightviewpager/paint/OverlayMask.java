@@ -0,0 +1,188 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.Px;
+
+/**
+ * The overlay kept as view sized ALPHA_8 tiles with the spotlight already cut out of them.
+ * Each frame only the previous hole is filled back in and the new one is cleared, so updating it costs
+ * as much as the spotlight area instead of the screen area, and drawing it needs neither an offscreen layer
+ * nor a CLEAR xfermode on the view's canvas. The tiles are tinted by the paint they are drawn with.
+ * <p>
+ * A hardware canvas uploads a bitmap as one texture and uploads all of it again whenever it changes.
+ * With a single screen sized bitmap that is a full screen upload per frame (about 2MB on a 1080x1920 screen)
+ * however small the hole is. Only the tiles the hole touched are uploaded again, the rest stay on the gpu.
+ */
+public class OverlayMask {
+    @Px static final int TILE_SIZE = 256; // 64KB per tile, a small hole touches at most four of them
+
+    @NonNull private final Paint fillPaint; // restores the overlay where the previous hole was
+    @NonNull private final Paint clearPaint; // cuts the hole
+    @NonNull private final RectF hole = new RectF(); // bounds of the hole currently cut, empty if none
+    @NonNull private final RectF cutRect = new RectF(); // the rect currently cut, to skip unchanged frames
+    private float cutRadius;
+    @Nullable private Path cutPath; // the path the current hole was cut from, null for a round rect
+    private int cutPathVersion;
+    int editedTiles; // by the last setHole
+
+    @Px private int width;
+    @Px private int height;
+    private int columns;
+    @Nullable private Bitmap[] tiles;
+    @Nullable private Canvas[] tileCanvases; // translated so that each one draws in view coordinates
+
+    public OverlayMask() {
+        fillPaint = new Paint();
+        fillPaint.setColor(Color.BLACK);
+        fillPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
+
+        clearPaint = new Paint();
+        clearPaint.setAntiAlias(true);
+        clearPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+    }
+
+    /**
+     * Moves the hole to rect, or fills it in when rect is null
+     */
+    public void setHole(@Px int width, @Px int height, @Nullable RectF rect, float radius) {
+        setHole(width, height, rect, radius, null, 0);
+    }
+
+    /**
+     * Same as {@link #setHole(int, int, RectF, float)}, cuts path instead of a single round rect if it is not null.
+     * path has to lie within rect. A path that is rebuilt in place without rect or radius changing has to come with
+     * a different pathVersion, the tiles are left as they are when path, pathVersion, rect and radius are unchanged.
+     */
+    public void setHole(@Px int width, @Px int height, @Nullable RectF rect, float radius, @Nullable Path path,
+                        int pathVersion) {
+        editedTiles = 0;
+
+        if (!ensureTiles(width, height) || tiles == null || tileCanvases == null) {
+            return;
+        }
+
+        final boolean hasRect = rect != null && !rect.isEmpty();
+
+        if (hasRect && !hole.isEmpty() && cutRect.equals(rect) && cutRadius == radius
+                && path == cutPath && (path == null || pathVersion == cutPathVersion)) {
+            // Nothing moved, editing the tiles would only upload them again
+            return;
+        }
+
+        for (int i = 0; i < tiles.length; i++) {
+            final Canvas tileCanvas = tileCanvases[i];
+            final int left = (i % columns) * TILE_SIZE;
+            final int top = (i / columns) * TILE_SIZE;
+            final int right = left + tiles[i].getWidth();
+            final int bottom = top + tiles[i].getHeight();
+
+            final boolean filled = !hole.isEmpty() && hole.intersects(left, top, right, bottom);
+            final boolean cut = hasRect && rect.intersects(left - 1, top - 1, right + 1, bottom + 1);
+
+            if (filled) {
+                tileCanvas.drawRect(hole, fillPaint);
+            }
+
+            if (cut) {
+                if (path != null) {
+                    tileCanvas.drawPath(path, clearPaint);
+                } else {
+                    tileCanvas.drawRoundRect(rect, radius, radius, clearPaint);
+                }
+            }
+
+            if (filled || cut) {
+                editedTiles++;
+            }
+        }
+
+        hole.setEmpty();
+        cutRect.setEmpty();
+        cutPath = null;
+
+        if (hasRect) {
+            // Anti aliased edges reach into the next pixel
+            hole.set(rect);
+            hole.inset(-1, -1);
+            cutRect.set(rect);
+            cutRadius = radius;
+            cutPath = path;
+            cutPathVersion = pathVersion;
+        }
+    }
+
+    public void draw(@NonNull Canvas canvas, @NonNull Paint overlayPaint) {
+        if (tiles == null) {
+            return;
+        }
+
+        // Whole pixel offsets, so the tiles meet without seams
+        for (int i = 0; i < tiles.length; i++) {
+            canvas.drawBitmap(tiles[i], (i % columns) * TILE_SIZE, (i / columns) * TILE_SIZE, overlayPaint);
+        }
+    }
+
+    /**
+     * @return false if there is nothing to draw into
+     */
+    private boolean ensureTiles(@Px int width, @Px int height) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+
+        if (tiles != null && this.width == width && this.height == height) {
+            return true;
+        }
+
+        release();
+
+        this.width = width;
+        this.height = height;
+        columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        final int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+
+        tiles = new Bitmap[columns * rows];
+        tileCanvases = new Canvas[tiles.length];
+
+        for (int i = 0; i < tiles.length; i++) {
+            final int left = (i % columns) * TILE_SIZE;
+            final int top = (i / columns) * TILE_SIZE;
+
+            tiles[i] = Bitmap.createBitmap(Math.min(TILE_SIZE, width - left), Math.min(TILE_SIZE, height - top),
+                    Bitmap.Config.ALPHA_8);
+            tiles[i].eraseColor(Color.BLACK);
+            tileCanvases[i] = new Canvas(tiles[i]);
+            tileCanvases[i].translate(-left, -top);
+        }
+
+        return true;
+    }
+
+    /**
+     * Frees the tiles, they are allocated again on the next {@link #setHole}
+     */
+    public void release() {
+        if (tiles != null) {
+            for (Bitmap tile : tiles) {
+                tile.recycle();
+            }
+        }
+
+        tiles = null;
+        tileCanvases = null;
+        width = 0;
+        height = 0;
+        hole.setEmpty();
+        cutRect.setEmpty();
+        cutPath = null;
+    }
+}
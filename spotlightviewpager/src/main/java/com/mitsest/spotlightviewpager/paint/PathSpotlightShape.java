@@ -0,0 +1,34 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * Any outline, e.g. the silhouette of an icon. The outline is stretched from its own bounds to the spotlight bounds,
+ * so it can be given in any coordinates.
+ */
+public class PathSpotlightShape extends SpotlightShape {
+    @NonNull private final Path outline;
+    @NonNull private final RectF outlineBounds = new RectF();
+    @NonNull private final Matrix matrix = new Matrix(); // Used to fit the outline without allocating
+
+    /**
+     * @param outline: copied, later changes to it are not picked up
+     */
+    public PathSpotlightShape(@NonNull Path outline) {
+        this.outline = new Path(outline);
+        this.outline.computeBounds(outlineBounds, true);
+    }
+
+    @Override
+    protected void addToPath(@NonNull Path out, @NonNull RectF rect, float radius) {
+        if (outlineBounds.isEmpty() || rect.isEmpty()) {
+            return;
+        }
+
+        matrix.setRectToRect(outlineBounds, rect, Matrix.ScaleToFit.FILL);
+        out.addPath(outline, matrix);
+    }
+}
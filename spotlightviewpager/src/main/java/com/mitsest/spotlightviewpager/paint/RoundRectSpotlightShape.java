@@ -0,0 +1,27 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * The default shape, a rect with corners of spotlight_border_radius
+ */
+public class RoundRectSpotlightShape extends SpotlightShape {
+    @Override
+    protected void addToPath(@NonNull Path out, @NonNull RectF rect, float radius) {
+        out.addRoundRect(rect, radius, radius, Path.Direction.CW);
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas, @NonNull RectF rect, float radius, @NonNull Paint paint) {
+        canvas.drawRoundRect(rect, radius, radius, paint);
+    }
+
+    @Override
+    boolean hasCachedGlow() {
+        return true;
+    }
+}
@@ -4,9 +4,12 @@ import android.content.Context;
 import android.graphics.BlurMaskFilter;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Path;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
 import android.graphics.RectF;
+import android.graphics.Region;
+import android.os.Build;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -15,6 +18,7 @@ import android.support.v4.content.ContextCompat;
 
 import com.mitsest.spotlightviewpager.Commons;
 import com.mitsest.spotlightviewpager.R;
+import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
 
 public class SpotlightPaint {
     @Px private final int borderSize;
@@ -25,6 +29,17 @@ public class SpotlightPaint {
     @Px private int borderGradientRadius;
     @Nullable private Paint borderGradientPaint; // used to draw spotlight border
     @Nullable private Paint borderPaint; // used to draw spotlight border
+    @Nullable private Paint glowPaint; // the default border gradient paint, drawn through borderGlow
+    @Nullable private BorderGlow borderGlow; // created on first draw, after the radius is known
+    @NonNull private SpotlightShape shape = new RoundRectSpotlightShape(); // pages without a shape of their own
+    @NonNull private final Path spotlightPath = new Path(); // every hole of the page being drawn, see getSpotlightPath()
+    @Nullable private SpotlightViewModel pathPage; // what spotlightPath was built for, it is rebuilt when any of them changes
+    @Nullable private SpotlightShape pathShape;
+    @NonNull private final RectF pathBounds = new RectF();
+    private float pathRadius = -1;
+    private int pathGeneration;
+    private int pathVersion; // bumped whenever spotlightPath is rebuilt
+    @NonNull private final RectF hole = new RectF(); // Used to draw holes without allocating
 
     public SpotlightPaint(@NonNull Context context) {
         paint = new Paint();
@@ -49,6 +64,8 @@ public class SpotlightPaint {
 
         radius = Commons.getDimenInPixels(context, R.dimen.spotlight_border_radius);
         borderGradientRadius = Commons.getDimenInPixels(context, R.dimen.spotlight_border_gradient_radius);
+        borderGlow = null;
+        pathPage = null;
     }
 
     private void initBorderGradientPaint() {
@@ -63,7 +80,7 @@ public class SpotlightPaint {
         }
 
         borderGradientPaint.setColor(borderColor);
-
+        glowPaint = borderGradientPaint;
     }
 
     public void setBorderGradientPaint(@Nullable Paint paint) {
@@ -93,22 +110,189 @@ public class SpotlightPaint {
 
     public void drawSpotlight(Canvas canvas, RectF animatingRectangle) {
         if (animatingRectangle != null) {
-            canvas.drawRoundRect(animatingRectangle, radius, radius, paint);
+            shape.draw(canvas, animatingRectangle, radius, paint);
         }
     }
 
     public void drawSpotlightBorder(Canvas canvas, RectF animatingRectangle) {
         if (animatingRectangle != null) {
+            drawSpotlightBorder(canvas, animatingRectangle, shape);
+        }
+    }
+
+    private void drawSpotlightBorder(@NonNull Canvas canvas, @NonNull RectF rect, @NonNull SpotlightShape shape) {
+        if (borderPaint != null) {
+            shape.draw(canvas, rect, radius, borderPaint);
+        }
+
+        if (hasCachedGlow(shape)) {
+            getBorderGlow().draw(canvas, rect);
+        } else if (borderGradientPaint != null) {
+            shape.draw(canvas, rect, radius, borderGradientPaint);
+        }
+    }
 
-            if (borderPaint != null) {
-                canvas.drawRoundRect(animatingRectangle, radius, radius, borderPaint);
+    /**
+     * Same as {@link #drawSpotlight(Canvas, RectF)} in the page's shape, every hole of a page with more than one target
+     * is cleared in one draw
+     */
+    public void drawSpotlight(@NonNull Canvas canvas, @Nullable SpotlightViewModel page) {
+        if (page == null) {
+            return;
+        }
+
+        if (page.getHoleCount() == 0) {
+            getShape(page).draw(canvas, page, radius, paint);
+        } else {
+            canvas.drawPath(getSpotlightPath(page), paint);
+        }
+    }
+
+    /**
+     * Same as {@link #drawSpotlightBorder(Canvas, RectF)} in the page's shape, the borders of a page with more than
+     * one target are drawn as one path. Only the cached glow is drawn per hole, as a few bitmap copies.
+     */
+    public void drawSpotlightBorder(@NonNull Canvas canvas, @Nullable SpotlightViewModel page) {
+        if (page == null) {
+            return;
+        }
+
+        final SpotlightShape shape = getShape(page);
+
+        if (page.getHoleCount() == 0) {
+            drawSpotlightBorder(canvas, page, shape);
+            return;
+        }
+
+        final Path path = getSpotlightPath(page);
+
+        if (borderPaint != null) {
+            canvas.drawPath(path, borderPaint);
+        }
+
+        if (hasCachedGlow(shape)) {
+            final BorderGlow glow = getBorderGlow();
+            for (int i = 0; i < page.getHoleCount(); i++) {
+                page.getHole(i, hole);
+                if (!hole.isEmpty()) {
+                    glow.draw(canvas, hole);
+                }
             }
+        } else if (borderGradientPaint != null) {
+            canvas.drawPath(path, borderGradientPaint);
+        }
+    }
+
+    private boolean hasCachedGlow(@NonNull SpotlightShape shape) {
+        return borderGradientPaint != null
+                && borderGradientPaint == glowPaint
+                && borderGradientRadius > 0
+                && shape.hasCachedGlow();
+    }
+
+    /**
+     * Keeps later draws out of the spotlight, for overlays that are not cleared with {@link #drawSpotlight}.
+     * Clipping to a path needs a software layer before JELLY_BEAN_MR2.
+     */
+    public void clipOutSpotlight(@NonNull Canvas canvas, @NonNull SpotlightViewModel page) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            canvas.clipOutPath(getSpotlightPath(page));
+        } else {
+            canvas.clipPath(getSpotlightPath(page), Region.Op.DIFFERENCE);
+        }
+    }
 
-            if (borderGradientPaint != null) {
-                canvas.drawRoundRect(animatingRectangle, radius, radius, borderGradientPaint);
+    /**
+     * @return the outline of every hole of page in its current bounds. A page with one target gets its shape's
+     * cached path. The holes of a page with more than one target are cached here, and only rebuilt when the page,
+     * its bounds, its shape, the radius or the page's placement changed.
+     */
+    @NonNull
+    public Path getSpotlightPath(@NonNull SpotlightViewModel page) {
+        final SpotlightShape shape = getShape(page);
+
+        if (page.getHoleCount() == 0) {
+            return shape.getPath(page, radius);
+        }
+
+        if (page == pathPage
+                && shape == pathShape
+                && page.left == pathBounds.left
+                && page.top == pathBounds.top
+                && page.right == pathBounds.right
+                && page.bottom == pathBounds.bottom
+                && radius == pathRadius
+                && page.getGeneration() == pathGeneration) {
+            return spotlightPath;
+        }
+
+        pathPage = page;
+        pathShape = shape;
+        pathBounds.set(page);
+        pathRadius = radius;
+        pathGeneration = page.getGeneration();
+        pathVersion++;
+
+        spotlightPath.rewind();
+
+        for (int i = 0; i < page.getHoleCount(); i++) {
+            page.getHole(i, hole);
+            if (!hole.isEmpty()) {
+                shape.addToPath(spotlightPath, hole, radius);
             }
         }
+
+        return spotlightPath;
+    }
+
+    /**
+     * @return the path {@link OverlayMask} has to cut for page, or null for a single round rect,
+     * which the mask cuts as a primitive and can tell unchanged from its bounds alone
+     */
+    @Nullable
+    public Path getMaskPath(@NonNull SpotlightViewModel page) {
+        if (page.getHoleCount() == 0 && getShape(page) instanceof RoundRectSpotlightShape) {
+            return null;
+        }
+
+        return getSpotlightPath(page);
+    }
+
+    /**
+     * @return changes whenever the path of a page with more than one target is rebuilt. The path of a single target
+     * is its shape's, which only changes with the bounds or the radius.
+     */
+    public int getSpotlightPathVersion() {
+        return pathVersion;
+    }
+
+    @NonNull
+    private SpotlightShape getShape(@NonNull SpotlightViewModel page) {
+        final SpotlightShape pageShape = page.getShape();
+        return pageShape != null ? pageShape : shape;
+    }
+
+    /**
+     * @param shape: used by the pages that don't have a shape of their own
+     */
+    public void setShape(@NonNull SpotlightShape shape) {
+        this.shape = shape;
+    }
+
+    @NonNull
+    public SpotlightShape getShape() {
+        return shape;
+    }
+
+    @NonNull
+    private BorderGlow getBorderGlow() {
+        if (borderGlow == null) {
+            borderGlow = new BorderGlow(radius, borderSize, borderGradientRadius, borderColor);
+        }
+
+        return borderGlow;
     }
+
     @Nullable
     public Paint getBorderPaint() {
         return borderPaint;
@@ -120,11 +304,33 @@ public class SpotlightPaint {
     }
 
 
+    /**
+     * @return how far the border and its glow are drawn outside of the spotlight bounds
+     */
+    @Px
+    public int getBorderMargin() {
+        // An OUTER blur fades out at roughly twice its radius
+        return borderSize + borderGradientRadius * 2 + 1;
+    }
+
+    /**
+     * BlurMaskFilter is ignored by the hardware renderer before P. The default glow of round rects is drawn from a cached bitmap,
+     * but other shapes and custom border gradient paints with a mask filter can only be drawn on a software layer there.
+     * Shapes set on single pages are not taken into account.
+     */
+    public boolean requiresSoftwareLayer() {
+        return borderGradientPaint != null
+                && (borderGradientPaint != glowPaint || !shape.hasCachedGlow())
+                && borderGradientPaint.getMaskFilter() != null
+                && Build.VERSION.SDK_INT < Build.VERSION_CODES.P;
+    }
+
     public int getRadius() {
         return radius;
     }
 
     public void setRadius(@Px int radius) {
         this.radius = radius;
+        this.borderGlow = null;
     }
 }
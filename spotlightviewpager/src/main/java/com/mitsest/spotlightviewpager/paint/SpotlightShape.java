@@ -0,0 +1,63 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * Outline of the spotlight, fitted inside the (animated) spotlight bounds.
+ * Every shape keeps one path and only rebuilds it in place when it is asked for different bounds,
+ * so the hole, border and glow draws of a frame share the same geometry and nothing is allocated while animating.
+ *
+ * Shapes are used from the ui thread. One instance may be shared by several pages of the same view.
+ */
+public abstract class SpotlightShape {
+    @NonNull private final Path path = new Path();
+    @NonNull private final RectF pathBounds = new RectF(); // Bounds path was built for
+    private float pathRadius = -1;
+
+    /**
+     * Appends the outline fitted inside rect to out, without resetting out
+     *
+     * @param radius: corner radius taken from resources, shapes without corners ignore it
+     */
+    protected abstract void addToPath(@NonNull Path out, @NonNull RectF rect, float radius);
+
+    /**
+     * @return the outline fitted inside rect. The same path is returned on every call and is rebuilt only if rect or radius changed.
+     */
+    @NonNull
+    public Path getPath(@NonNull RectF rect, float radius) {
+        if (rect.left != pathBounds.left
+                || rect.top != pathBounds.top
+                || rect.right != pathBounds.right
+                || rect.bottom != pathBounds.bottom
+                || radius != pathRadius) {
+            path.rewind();
+            addToPath(path, rect, radius);
+
+            pathBounds.set(rect);
+            pathRadius = radius;
+        }
+
+        return path;
+    }
+
+    /**
+     * Draws the outline fitted inside rect. Shapes Canvas has a primitive for override this, since primitives
+     * are drawn without rasterizing a path.
+     */
+    public void draw(@NonNull Canvas canvas, @NonNull RectF rect, float radius, @NonNull Paint paint) {
+        canvas.drawPath(getPath(rect, radius), paint);
+    }
+
+    /**
+     * @return true if the default border glow can be drawn from the cached bitmap (see BorderGlow), which is a round rect.
+     * Other shapes draw it with the glow paint's mask filter, which the hardware renderer ignores before P.
+     */
+    boolean hasCachedGlow() {
+        return false;
+    }
+}
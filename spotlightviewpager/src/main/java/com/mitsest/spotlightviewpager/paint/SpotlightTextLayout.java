@@ -0,0 +1,57 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.support.annotation.Nullable;
+import android.text.Layout;
+
+/**
+ * Text state of a single page: the layouts {@link SpotlightTextPaint} computed for it and what they were computed for.
+ * Paints and dimensions are not kept here, they belong to the SpotlightTextPaint shared by every page of a tour.
+ */
+public class SpotlightTextLayout {
+    @Nullable Layout titlePaintLayout;
+    @Nullable Layout subtitlePaintLayout;
+    @Nullable Layout pageNumberPaintLayout;
+
+    // What the layouts were built for, so that placing the page again only rebuilds what changed
+    int laidOutWidth = -1;
+    int laidOutPage = -1;
+    int laidOutNumberOfPages = -1;
+    float laidOutSubtitleHeight = -1;
+
+    private int maxWidth;
+    private int maxBottom;
+    private int page;
+    private int numberOfPages;
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public void setMaxWidth(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxBottom() {
+        return maxBottom;
+    }
+
+    public void setMaxBottom(int maxBottom) {
+        this.maxBottom = maxBottom;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getNumberOfPages() {
+        return numberOfPages;
+    }
+
+    public void setNumberOfPages(int numberOfPages) {
+        this.numberOfPages = numberOfPages;
+    }
+}
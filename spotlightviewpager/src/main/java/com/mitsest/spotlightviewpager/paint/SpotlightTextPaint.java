@@ -4,11 +4,12 @@ import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.RectF;
+import android.os.Build;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.content.ContextCompat;
-import android.text.DynamicLayout;
+import android.text.Layout;
 import android.text.TextPaint;
 import android.text.TextUtils;
 
@@ -17,34 +18,34 @@ import com.mitsest.spotlightviewpager.R;
 import com.mitsest.spotlightviewpager.animation.OpacityDelegate;
 import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
 
-
+/**
+ * Paints and dimensions of the spotlight text, shared by every page of a tour.
+ * The layouts of each page are kept in that page's {@link SpotlightTextLayout}.
+ */
 public class SpotlightTextPaint {
+    private static final int UNLIMITED_LINES = -1;
+
     private final int paddingTop;
     private final int paddingLeft;
 
-    @NonNull private TextPaint titlePaint;
-    @NonNull private TextPaint subtitlePaint;
-    @NonNull private TextPaint pageNumberPaint;
-    @NonNull private OpacityDelegate textOpacity;
+    @NonNull private final TextPaint titlePaint;
+    @NonNull private final TextPaint subtitlePaint;
+    @NonNull private final TextPaint pageNumberPaint;
+    @NonNull private final OpacityDelegate textOpacity;
+    @NonNull private final TextLayoutCache layoutCache;
+    @NonNull private final RectF textLayerBounds = new RectF(); // Used by drawText() without allocating
 
     private final int titleSize;
     private final int subtitleSize;
     @ColorInt private final int textColor;
-    @Nullable private DynamicLayout titlePaintLayout;
-    @Nullable private DynamicLayout subtitlePaintLayout;
-    @Nullable private DynamicLayout pageNumberPaintLayout;
     private final int pageNumberSize;
-    private int width;
-    private int maxBottom;
-
-    private int page;
-    private int numberOfPages;
 
     public SpotlightTextPaint(@NonNull Context context) {
         titlePaint = new TextPaint();
         subtitlePaint = new TextPaint();
         pageNumberPaint = new TextPaint();
         textOpacity = new OpacityDelegate();
+        layoutCache = TextLayoutCache.getInstance();
 
         paddingTop = Commons.getDimenInPixels(context, R.dimen.spotlight_text_padding_top);
         paddingLeft = Commons.getDimenInPixels(context, R.dimen.spotlight_text_padding_left);
@@ -60,46 +61,80 @@ public class SpotlightTextPaint {
 
     }
 
-    private float getTextOffsetBottom(@NonNull RectF rectF) {
+    private float getTextOffsetBottom(@NonNull SpotlightTextLayout text, @NonNull RectF rectF) {
+        return getTextOffsetBottom(text, rectF, true);
+    }
+
+    /**
+     * @param withSubtitle: false leaves the current subtitle layout out, to measure the space it can be fitted in
+     */
+    private float getTextOffsetBottom(@NonNull SpotlightTextLayout text, @NonNull RectF rectF, boolean withSubtitle) {
         float offset = 0;
         offset += rectF.bottom + paddingTop;
 
-        if (titlePaintLayout != null) {
-            offset += titlePaintLayout.getHeight() + paddingTop;
+        if (text.titlePaintLayout != null) {
+            offset += text.titlePaintLayout.getHeight() + paddingTop;
         }
 
-        if (subtitlePaintLayout != null) {
-            offset += subtitlePaintLayout.getHeight() + paddingTop;
+        if (withSubtitle && text.subtitlePaintLayout != null) {
+            offset += text.subtitlePaintLayout.getHeight() + paddingTop;
         }
 
-        if (pageNumberPaintLayout != null) {
-            offset += pageNumberPaintLayout.getHeight();
+        if (text.pageNumberPaintLayout != null) {
+            offset += text.pageNumberPaintLayout.getHeight();
         }
 
         return offset;
     }
 
-    private float getTextOffsetTop(@NonNull RectF animatingRectangle) {
+    private float getTextOffsetTop(@NonNull SpotlightTextLayout text, @NonNull RectF animatingRectangle) {
+        return getTextOffsetTop(text, animatingRectangle, true);
+    }
+
+    /**
+     * @param withSubtitle: false leaves the current subtitle layout out, to measure the space it can be fitted in
+     */
+    private float getTextOffsetTop(@NonNull SpotlightTextLayout text, @NonNull RectF animatingRectangle, boolean withSubtitle) {
         float offset = animatingRectangle.top - paddingTop;
 
-        if (titlePaintLayout != null) {
-            offset = offset - titlePaintLayout.getHeight() - paddingTop;
+        if (text.titlePaintLayout != null) {
+            offset = offset - text.titlePaintLayout.getHeight() - paddingTop;
         }
 
-        if (subtitlePaintLayout != null) {
-            offset = offset - subtitlePaintLayout.getHeight() - paddingTop;
+        if (withSubtitle && text.subtitlePaintLayout != null) {
+            offset = offset - text.subtitlePaintLayout.getHeight() - paddingTop;
         }
 
-        if (pageNumberPaintLayout != null) {
-            offset = offset - pageNumberPaintLayout.getHeight() - paddingTop;
+        if (text.pageNumberPaintLayout != null) {
+            offset = offset - text.pageNumberPaintLayout.getHeight() - paddingTop;
         }
 
         return offset;
     }
 
 
-    public boolean textFitsBottom(@NonNull final SpotlightViewModel viewModel) {
-        return maxBottom - viewModel.bottom > viewModel.top;
+    /**
+     * Writes the area covered by the text block of viewModel into out (left empty if there is no text)
+     */
+    public void getTextBounds(@NonNull SpotlightTextLayout text, @NonNull final SpotlightViewModel viewModel, @NonNull RectF out) {
+        if (text.titlePaintLayout == null && text.subtitlePaintLayout == null && text.pageNumberPaintLayout == null) {
+            out.setEmpty();
+            return;
+        }
+
+        if (viewModel.getTextPosition() == SpotlightViewModel.TEXT_TOP) {
+            out.set(paddingLeft, getTextOffsetTop(text, viewModel), paddingLeft + getWidth(text), viewModel.top);
+        } else {
+            out.set(paddingLeft, viewModel.bottom, paddingLeft + getWidth(text), getTextOffsetBottom(text, viewModel));
+        }
+    }
+
+    public boolean textFitsBottom(@NonNull SpotlightTextLayout text, @NonNull final RectF bounds) {
+        return text.getMaxBottom() - bounds.bottom > bounds.top;
+    }
+
+    private int getWidth(@NonNull SpotlightTextLayout text) {
+        return text.getMaxWidth() - (paddingLeft * 2);
     }
 
     public ValueAnimator getTextOpacityAnimation() {
@@ -107,65 +142,76 @@ public class SpotlightTextPaint {
     }
 
 
-    public void drawText(Canvas canvas, SpotlightViewModel viewModel) {
+    public void drawText(Canvas canvas, @NonNull SpotlightTextLayout text, SpotlightViewModel viewModel) {
+        final int opacity = textOpacity.getOpacity();
+        if (opacity <= 0) {
+            return;
+        }
 
-        canvas.save();
+        // The paints are never changed while drawing, the background thread measures with them at the same time.
+        // Fading text is drawn opaque into a layer the size of the text block instead.
+        if (opacity < 255) {
+            getTextBounds(text, viewModel, textLayerBounds);
+            saveLayerAlpha(canvas, textLayerBounds, opacity);
+        } else {
+            canvas.save();
+        }
 
         canvas.translate(paddingLeft, 0);
 
         if (viewModel.getTextPosition() == SpotlightViewModel.TEXT_TOP) {
-            float topOffset = getTextOffsetTop(viewModel);
-            drawText(canvas, topOffset);
+            float topOffset = getTextOffsetTop(text, viewModel);
+            drawText(canvas, text, topOffset);
         } else {
-            drawText(canvas, viewModel.bottom + paddingTop);
+            drawText(canvas, text, viewModel.bottom + paddingTop);
         }
 
         canvas.restore();
     }
 
-    private void drawText(Canvas canvas, float startFrom) {
-        float offset = startFrom;
-        canvas.translate(0, offset);
-        drawTitle(canvas);
-
-        if (subtitlePaintLayout != null) {
-            if (titlePaintLayout != null) {
-                offset = titlePaintLayout.getHeight() + paddingTop;
-            }
+    private void drawText(Canvas canvas, @NonNull SpotlightTextLayout text, float startFrom) {
+        canvas.translate(0, startFrom);
 
-            canvas.translate(0, offset);
-            drawSubtitle(canvas);
+        if (text.titlePaintLayout != null) {
+            drawTitle(canvas, text);
+            canvas.translate(0, text.titlePaintLayout.getHeight() + paddingTop);
         }
 
-        if (pageNumberPaintLayout != null) {
-            if (subtitlePaintLayout != null) {
-                offset = subtitlePaintLayout.getHeight() + paddingTop;
-            }
+        if (text.subtitlePaintLayout != null) {
+            drawSubtitle(canvas, text);
+            canvas.translate(0, text.subtitlePaintLayout.getHeight() + paddingTop);
+        }
 
-            canvas.translate(0, offset);
-            drawPageNumbers(canvas, pageNumberSize);
+        if (text.pageNumberPaintLayout != null) {
+            drawPageNumbers(canvas, text, pageNumberSize);
         }
     }
 
 
-    private void drawTitle(Canvas canvas) {
-        if (titlePaintLayout != null) {
-            titlePaint.setAlpha(textOpacity.getOpacity());
-            titlePaintLayout.draw(canvas);
+    @SuppressWarnings("deprecation")
+    private static void saveLayerAlpha(@NonNull Canvas canvas, @NonNull RectF bounds, int alpha) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            canvas.saveLayerAlpha(bounds, alpha);
+        } else {
+            canvas.saveLayerAlpha(bounds, alpha, Canvas.ALL_SAVE_FLAG);
+        }
+    }
+
+    private void drawTitle(Canvas canvas, @NonNull SpotlightTextLayout text) {
+        if (text.titlePaintLayout != null) {
+            text.titlePaintLayout.draw(canvas);
         }
     }
 
-    private void drawSubtitle(Canvas canvas) {
-        if (subtitlePaintLayout != null) {
-            subtitlePaint.setAlpha(textOpacity.getOpacity());
-            subtitlePaintLayout.draw(canvas);
+    private void drawSubtitle(Canvas canvas, @NonNull SpotlightTextLayout text) {
+        if (text.subtitlePaintLayout != null) {
+            text.subtitlePaintLayout.draw(canvas);
         }
     }
 
-    private void drawPageNumbers(Canvas canvas, int numberOfPages) {
-        if (numberOfPages >= 2 && pageNumberPaintLayout != null) {
-            pageNumberPaint.setAlpha(textOpacity.getOpacity());
-            pageNumberPaintLayout.draw(canvas);
+    private void drawPageNumbers(Canvas canvas, @NonNull SpotlightTextLayout text, int numberOfPages) {
+        if (numberOfPages >= 2 && text.pageNumberPaintLayout != null) {
+            text.pageNumberPaintLayout.draw(canvas);
         }
     }
 
@@ -189,79 +235,118 @@ public class SpotlightTextPaint {
 
     }
 
-    public void setText(@NonNull final SpotlightViewModel viewModel) {
+    /**
+     * Lays out the text of viewModel. Safe to call off the ui thread.
+     * Layouts are only rebuilt when the width, the page numbers or the height left for the subtitle changed.
+     *
+     * @param bounds: spotlight bounds the text is placed against (not the animating ones)
+     */
+    public void setText(@NonNull SpotlightTextLayout text, @NonNull final SpotlightViewModel viewModel, @NonNull final RectF bounds) {
+        final int width = getWidth(text);
         if (width < 0) {
             return;
         }
 
-        if (!TextUtils.isEmpty(viewModel.getTitle())) {
-            titlePaintLayout = Commons.getDynamicLayout(viewModel.getTitle(), titlePaint, width);
+        final boolean widthChanged = width != text.laidOutWidth;
+
+        if (widthChanged) {
+            if (!TextUtils.isEmpty(viewModel.getTitle())) {
+                text.titlePaintLayout = getLayout(viewModel.getTitle(), titlePaint, width);
+            } else {
+                text.titlePaintLayout = null;
+            }
         }
 
-        setSubtitlePaintEllipsize(viewModel, viewModel.getMaxLines());
+        // Page numbers take part in the height the subtitle is fitted in
+        if (widthChanged || text.getPage() != text.laidOutPage || text.getNumberOfPages() != text.laidOutNumberOfPages) {
+            text.pageNumberPaintLayout = getLayout(text.getPage() + "/" + text.getNumberOfPages(), pageNumberPaint, width);
+            text.laidOutPage = text.getPage();
+            text.laidOutNumberOfPages = text.getNumberOfPages();
+        }
 
-        pageNumberPaintLayout = Commons.getDynamicLayout(page + "/" + numberOfPages, pageNumberPaint, width);
-    }
+        final float availableSubtitleHeight = getAvailableSubtitleHeight(text, viewModel, bounds);
+        if (widthChanged || availableSubtitleHeight != text.laidOutSubtitleHeight) {
+            setSubtitlePaintEllipsize(text, viewModel, bounds, viewModel.getMaxLines());
+            text.laidOutSubtitleHeight = availableSubtitleHeight;
+        }
 
-    public void setMaxWidth(int width) {
-        this.width = width - (paddingLeft * 2);
+        text.laidOutWidth = width;
     }
 
-    private void setSubtitlePaintEllipsize(@NonNull final SpotlightViewModel viewModel, int maxLines) {
+    private void setSubtitlePaintEllipsize(@NonNull SpotlightTextLayout text, @NonNull final SpotlightViewModel viewModel, @NonNull final RectF bounds, int maxLines) {
         viewModel.setMaxLines(maxLines);
 
         if (!TextUtils.isEmpty(viewModel.getSubtitleString())) {
-            fitSubtitlePaintLayout(viewModel, maxLines);
+            fitSubtitlePaintLayout(text, viewModel, bounds, maxLines);
+        } else {
+            text.subtitlePaintLayout = null;
         }
 
     }
 
-    @NonNull private void fitSubtitlePaintLayout(@NonNull final SpotlightViewModel viewModel, int maxLines) {
-        subtitlePaintLayout = getSubtitlePaintLayout(viewModel.getSubtitleString(), width, maxLines);
+    private void fitSubtitlePaintLayout(@NonNull SpotlightTextLayout text, @NonNull final SpotlightViewModel viewModel, @NonNull final RectF bounds, int maxLines) {
+        final String subtitle = viewModel.getSubtitleString();
+        final int width = getWidth(text);
+        final Layout measured = getMeasuredSubtitleLayout(subtitle, width);
 
-        while (!textFits(viewModel) && maxLines >= 1) {
-            subtitlePaintLayout = getSubtitlePaintLayout(viewModel.getSubtitleString(), width, --maxLines);
-        }
-    }
+        final int lineCount = SubtitleFitter.fitLineCount(measured, maxLines, getAvailableSubtitleHeight(text, viewModel, bounds));
 
-    @NonNull
-    private DynamicLayout getSubtitlePaintLayout(String text, int width, int maxLines) {
-        return Commons.getDynamicLayout(
-                TextUtils.ellipsize(text, subtitlePaint, width * maxLines, TextUtils.TruncateAt.END),
-                subtitlePaint,
-                width
-        );
+        text.subtitlePaintLayout = lineCount > 0 ? getSubtitlePaintLayout(subtitle, width, measured, lineCount) : null;
     }
 
-    private boolean textFits(@NonNull final SpotlightViewModel viewModel) {
+    /**
+     * @return the height left for the subtitle once title, page numbers and paddings are placed.
+     * The subtitle laid out last time is left out, so the result does not depend on it.
+     */
+    private float getAvailableSubtitleHeight(@NonNull SpotlightTextLayout text, @NonNull final SpotlightViewModel viewModel, @NonNull final RectF bounds) {
         if (viewModel.getTextPosition() == SpotlightViewModel.TEXT_TOP) {
-            return getTextOffsetTop(viewModel) >= 0;
+            return getTextOffsetTop(text, bounds, false) - paddingTop;
         } else {
-            return getTextOffsetBottom(viewModel) <= maxBottom;
+            return text.getMaxBottom() - getTextOffsetBottom(text, bounds, false) - paddingTop;
         }
     }
 
-    public void setMaxBottom(int bottom) {
-        this.maxBottom = bottom;
-    }
+    @NonNull
+    private Layout getMeasuredSubtitleLayout(@NonNull String text, int width) {
+        Layout layout = layoutCache.get(text, subtitlePaint, width, UNLIMITED_LINES);
 
-    public void setPage(int page) {
-        this.page = page;
-    }
+        if (layout == null) {
+            layout = TextLayoutEngine.build(text, subtitlePaint, width);
+            layoutCache.put(text, subtitlePaint, width, UNLIMITED_LINES, layout);
+        }
 
-    public int getPage() {
-        return page;
+        return layout;
     }
 
-    public void setNumberOfPages(int numberOfPages) {
-        this.numberOfPages = numberOfPages;
+    @NonNull
+    private Layout getSubtitlePaintLayout(@NonNull String text, int width, @NonNull Layout measured, int lineCount) {
+        Layout layout = layoutCache.get(text, subtitlePaint, width, lineCount);
+
+        if (layout == null) {
+            layout = TextLayoutEngine.build(
+                    SubtitleFitter.ellipsize(text, measured, lineCount, subtitlePaint, width),
+                    subtitlePaint,
+                    width
+            );
+            layoutCache.put(text, subtitlePaint, width, lineCount, layout);
+        }
+
+        return layout;
     }
 
-    public int getNumberOfPages() {
-        return numberOfPages;
+    @NonNull
+    private Layout getLayout(@NonNull String text, @NonNull TextPaint paint, int width) {
+        Layout layout = layoutCache.get(text, paint, width, UNLIMITED_LINES);
+
+        if (layout == null) {
+            layout = TextLayoutEngine.build(text, paint, width);
+            layoutCache.put(text, paint, width, UNLIMITED_LINES, layout);
+        }
+
+        return layout;
     }
 
     public void reset() {
-        textOpacity = new OpacityDelegate();
+        textOpacity.reset();
     }
 }
@@ -0,0 +1,59 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.support.annotation.NonNull;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+/**
+ * Fits a subtitle into the height left around the spotlight using a single measurement of the whole text.
+ */
+public class SubtitleFitter {
+
+    /**
+     * Binary searches the line heights of measured, which only grow with the line count.
+     *
+     * @param measured: the whole subtitle laid out without a line limit
+     * @param maxLines: the most lines the subtitle may take
+     * @param availableHeight: the height the subtitle may take
+     * @return the largest line count that is at most maxLines and fits availableHeight, 0 if not even one line fits
+     */
+    public static int fitLineCount(@NonNull Layout measured, int maxLines, float availableHeight) {
+        int low = 0;
+        int high = Math.min(maxLines, measured.getLineCount());
+
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+
+            if (measured.getLineBottom(mid - 1) <= availableHeight) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return text cut to its first lineCount lines of measured, the last of which is ellipsized to fit width
+     */
+    @NonNull
+    public static CharSequence ellipsize(@NonNull CharSequence text, @NonNull Layout measured, int lineCount,
+                                         @NonNull TextPaint paint, int width) {
+        if (lineCount <= 0) {
+            return "";
+        }
+
+        if (lineCount >= measured.getLineCount()) {
+            return text;
+        }
+
+        final int lastLineStart = measured.getLineStart(lineCount - 1);
+
+        return TextUtils.concat(
+                text.subSequence(0, lastLineStart),
+                TextUtils.ellipsize(text.subSequence(lastLineStart, text.length()), paint, width, TextUtils.TruncateAt.END)
+        );
+    }
+}
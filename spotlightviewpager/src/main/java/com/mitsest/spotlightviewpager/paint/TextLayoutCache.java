@@ -0,0 +1,103 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.graphics.Typeface;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * Process wide cache of measured text layouts, shared by every page of every tour.
+ * Layouts are keyed by their text, the paint configuration (alpha excluded), the width and the max lines
+ * they were built with, so showing the same tour again or going back to a known width skips measuring.
+ *
+ * Cached layouts keep a reference to the paint they were built with, shared by every page that uses the same text
+ * paint. Never change that paint's alpha or any other attribute to draw one page: per page alpha is applied by
+ * {@link SpotlightTextPaint#drawText} through a layer instead.
+ */
+public class TextLayoutCache {
+    private static final int MAX_SIZE = 64; // layouts
+
+    @Nullable private static TextLayoutCache instance;
+
+    @NonNull private final LruCache<Key, Layout> layouts;
+
+    TextLayoutCache(int maxSize) {
+        layouts = new LruCache<>(maxSize);
+    }
+
+    @NonNull
+    public static synchronized TextLayoutCache getInstance() {
+        if (instance == null) {
+            instance = new TextLayoutCache(MAX_SIZE);
+        }
+
+        return instance;
+    }
+
+    @Nullable
+    public Layout get(@NonNull CharSequence text, @NonNull TextPaint paint, int width, int maxLines) {
+        return layouts.get(new Key(text, paint, width, maxLines));
+    }
+
+    public void put(@NonNull CharSequence text, @NonNull TextPaint paint, int width, int maxLines, @NonNull Layout layout) {
+        layouts.put(new Key(text, paint, width, maxLines), layout);
+    }
+
+    public void clear() {
+        layouts.evictAll();
+    }
+
+    private static final class Key {
+        @NonNull private final String text;
+        private final float textSize;
+        private final int color;
+        @Nullable private final Typeface typeface;
+        private final int flags;
+        private final int width;
+        private final int maxLines;
+
+        Key(@NonNull CharSequence text, @NonNull TextPaint paint, int width, int maxLines) {
+            this.text = text.toString();
+            this.textSize = paint.getTextSize();
+            this.color = paint.getColor() & 0x00FFFFFF; // alpha is animated, it does not affect the layout
+            this.typeface = paint.getTypeface();
+            this.flags = paint.getFlags();
+            this.width = width;
+            this.maxLines = maxLines;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return Float.compare(key.textSize, textSize) == 0
+                    && color == key.color
+                    && flags == key.flags
+                    && width == key.width
+                    && maxLines == key.maxLines
+                    && (typeface == null ? key.typeface == null : typeface.equals(key.typeface))
+                    && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + color;
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + flags;
+            result = 31 * result + width;
+            result = 31 * result + maxLines;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mitsest.spotlightviewpager.paint;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Layout;
+import android.text.PrecomputedText;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import com.mitsest.spotlightviewpager.Commons;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Builds the immutable layouts spotlight text is drawn with.
+ * Layouts can be built on {@link #getExecutor()} so that drawing only has to blit them.
+ */
+public class TextLayoutEngine {
+
+    @Nullable private static ExecutorService executor;
+
+    /**
+     * @return a single background thread, so pages are measured in the order they are submitted
+     */
+    @NonNull
+    public static synchronized Executor getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable r) {
+                    final Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            r.run();
+                        }
+                    }, "spotlightviewpager-text");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+
+        return executor;
+    }
+
+    @NonNull
+    public static Layout build(@NonNull CharSequence text, @NonNull TextPaint paint, int width) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            return buildPrecomputed(text, paint, width);
+        } else {
+            return Commons.getStaticLayout(text, paint, width);
+        }
+    }
+
+    @NonNull
+    @TargetApi(Build.VERSION_CODES.P)
+    private static Layout buildPrecomputed(@NonNull CharSequence text, @NonNull TextPaint paint, int width) {
+        // Params have to match the StaticLayout.Builder defaults, otherwise the layout measures the text again
+        final PrecomputedText.Params params = new PrecomputedText.Params.Builder(paint)
+                .setBreakStrategy(Layout.BREAK_STRATEGY_SIMPLE)
+                .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NONE)
+                .build();
+        final PrecomputedText precomputed = PrecomputedText.create(text, params);
+
+        return StaticLayout.Builder.obtain(precomputed, 0, precomputed.length(), paint, width).build();
+    }
+}
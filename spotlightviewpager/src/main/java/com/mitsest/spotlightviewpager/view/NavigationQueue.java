@@ -0,0 +1,64 @@
+package com.mitsest.spotlightviewpager.view;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Next and previous commands received before the spotlight has anything to move from: the overlay is still
+ * fading in, or the first page is still being prepared. They are applied in one move once the first page grows.
+ * Commands received after that are applied right away, so they never wait here.
+ * Bursts coalesce into a single page offset: three quick swipes to the left become one move of +3 pages.
+ * The offset is clamped to maxOffset pages either way, commands beyond that are dropped.
+ */
+class NavigationQueue {
+    static final int NEXT = 1;
+    static final int PREVIOUS = -1;
+
+    private final int maxOffset;
+    private int offset = 0;
+
+    NavigationQueue(int maxOffset) {
+        this.maxOffset = maxOffset;
+    }
+
+    /**
+     * Adds pages in direction to the queued offset
+     *
+     * @return false if the offset reached maxOffset and some of the pages were dropped
+     */
+    boolean offer(@Command int direction, int pages) {
+        final int wanted = offset + direction * pages;
+        offset = Math.max(-maxOffset, Math.min(maxOffset, wanted));
+
+        return offset == wanted;
+    }
+
+    /**
+     * Empties the queue
+     *
+     * @return the page offset of every queued command together, 0 if they cancel out or there were none
+     */
+    int drain() {
+        final int drained = offset;
+        offset = 0;
+
+        return drained;
+    }
+
+    /**
+     * @return the page offset of every queued command together, without emptying the queue
+     */
+    int getOffset() {
+        return offset;
+    }
+
+    void clear() {
+        offset = 0;
+    }
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({NEXT, PREVIOUS})
+    @interface Command {}
+}
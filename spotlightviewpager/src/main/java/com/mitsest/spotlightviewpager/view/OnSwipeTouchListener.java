@@ -31,6 +31,20 @@ public class OnSwipeTouchListener implements View.OnTouchListener {
     public void onSwipeLeft() {
     }
 
+    /**
+     * @param velocityX: fling velocity in px per second
+     */
+    public void onSwipeRight(float velocityX) {
+        onSwipeRight();
+    }
+
+    /**
+     * @param velocityX: fling velocity in px per second, negative
+     */
+    public void onSwipeLeft(float velocityX) {
+        onSwipeLeft();
+    }
+
     public void onSwipeTop() {
     }
 
@@ -41,6 +55,14 @@ public class OnSwipeTouchListener implements View.OnTouchListener {
 
     }
 
+    /**
+     * @param x: tap position in the view
+     * @param y: tap position in the view
+     */
+    public void onClick(float x, float y) {
+        onClick();
+    }
+
     private final class GestureListener extends GestureDetector.SimpleOnGestureListener {
 
         private static final int SWIPE_THRESHOLD = 100;
@@ -48,7 +70,7 @@ public class OnSwipeTouchListener implements View.OnTouchListener {
 
         @Override
         public boolean onSingleTapConfirmed(MotionEvent e) {
-            onClick();
+            onClick(e.getX(), e.getY());
             return true;
         }
 
@@ -61,9 +83,9 @@ public class OnSwipeTouchListener implements View.OnTouchListener {
                 if (Math.abs(diffX) > Math.abs(diffY)) {
                     if (Math.abs(diffX) > SWIPE_THRESHOLD && Math.abs(velocityX) > SWIPE_VELOCITY_THRESHOLD) {
                         if (diffX > 0) {
-                            onSwipeRight();
+                            onSwipeRight(velocityX);
                         } else {
-                            onSwipeLeft();
+                            onSwipeLeft(velocityX);
                         }
                         result = true;
                     }
@@ -1,13 +1,14 @@
 package com.mitsest.spotlightviewpager.view;
 
 import android.animation.Animator;
-import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
 import android.app.Activity;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.RectF;
+import android.os.Build;
+import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Px;
@@ -16,36 +17,82 @@ import android.support.v4.view.animation.FastOutSlowInInterpolator;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewConfiguration;
 import android.view.ViewTreeObserver;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 import android.view.animation.OvershootInterpolator;
 
 import com.mitsest.spotlightviewpager.Commons;
 import com.mitsest.spotlightviewpager.R;
 import com.mitsest.spotlightviewpager.animation.AnimationDelegate;
+import com.mitsest.spotlightviewpager.animation.DirtyRegionDelegate;
+import com.mitsest.spotlightviewpager.animation.FrameMetricsDelegate;
 import com.mitsest.spotlightviewpager.animation.OffsetDelegate;
 import com.mitsest.spotlightviewpager.animation.OpacityDelegate;
+import com.mitsest.spotlightviewpager.animation.PhaseMetrics;
+import com.mitsest.spotlightviewpager.animation.RectAnimationDelegate;
+import com.mitsest.spotlightviewpager.model.SpotlightTargetIndex;
+import com.mitsest.spotlightviewpager.model.SpotlightTour;
+import com.mitsest.spotlightviewpager.model.SpotlightTourSource;
 import com.mitsest.spotlightviewpager.model.SpotlightViewModel;
+import com.mitsest.spotlightviewpager.paint.OverlayMask;
 import com.mitsest.spotlightviewpager.paint.SpotlightPaint;
+import com.mitsest.spotlightviewpager.paint.SpotlightShape;
+import com.mitsest.spotlightviewpager.paint.SpotlightTextPaint;
+import com.mitsest.spotlightviewpager.paint.TextLayoutEngine;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.util.List;
 
 
 public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGlobalLayoutListener {
+    public static final int RENDER_MODE_SOFTWARE = 0; // whole overlay is rasterized on the cpu
+    public static final int RENDER_MODE_HARDWARE = 1; // overlay is drawn into a gpu backed offscreen layer
+    public static final int RENDER_MODE_MASK = 2; // overlay is a cached bitmap with the hole cut out, no offscreen layer
+    public static final int PREPARE_ALL = -1; // every page is prepared when the tour starts
+    private static final int DEFAULT_PAGED_LOOKAHEAD = 2; // used by tours from a SpotlightTourSource instead of PREPARE_ALL
+    private static final int MAX_QUEUED_PAGES = 8; // swipes beyond this before the first page grows are dropped
+    private static final int DEFAULT_MAX_FLING_PAGES = 5;
 
     @NonNull private final SpotlightPaint spotlight;
+    @NonNull private final SpotlightTextPaint textPaint; // Shared by every page
     @NonNull private final OffsetDelegate offsetDelegate;
     @NonNull private final OpacityDelegate backgroundOpacityDelegate;
-    @Nullable private Paint backgroundPaint;
+    @NonNull private final Paint backgroundPaint;
     @NonNull private final OnSwipeTouchListener swipeTouchListener;
-
+    @NonNull private final DirtyRegionDelegate dirtyRegion;
+    @NonNull private final RectF textBounds = new RectF(); // Used to compute dirty bounds without allocating
+    @NonNull private final RectF animationStart = new RectF(); // Used to compute grow and close bounds without allocating
+    @NonNull private final RectAnimationDelegate rectAnimation; // Drives grow, pulse, move and close
+    @NonNull private final OverlayMask overlayMask; // Only allocates its bitmap in RENDER_MODE_MASK
+    @NonNull private final FrameMetricsDelegate metrics; // Idle until a metrics listener is set
+    @NonNull private final SpotlightTargetIndex targetIndex = new SpotlightTargetIndex(); // Prepared pages by position, for taps
+    @NonNull private final NavigationQueue navigationQueue = new NavigationQueue(MAX_QUEUED_PAGES);
+
+    // Interpolators are stateless, share them between runs
+    @NonNull private final Interpolator growInterpolator = new AccelerateDecelerateInterpolator();
+    @NonNull private final Interpolator pulseInterpolator = new OvershootInterpolator();
+    @NonNull private final Interpolator moveInterpolator = new FastOutSlowInInterpolator();
+    @NonNull private final Interpolator closeInterpolator = new DecelerateInterpolator();
+    @NonNull private final Interpolator retargetInterpolator = new LinearInterpolator(); // the retarget curve eases out by itself
+
+    @Nullable private SpotlightTour tour;
     @Nullable private SpotlightViewModel firstTarget;
     @Nullable private SpotlightViewModel animatingRectangle; // Used in draw (its scale and bounds are changing)
+    @Nullable private SpotlightViewModel pendingGrowModel; // Background faded in before the first page was prepared
+    @Nullable private SpotlightViewModel pendingTextModel; // Pulse ended before its text was laid out
+    @Nullable private AnimationDelegate backgroundAnimation;
+    @Nullable private AnimationDelegate textAnimation;
+    @Nullable private SpotlightViewPool pool; // Set when obtained from a pool, the view goes back to it once closed
 
     @Px private final int spotlightPadding;
     @Px private final int spotlightPulseAnimationSize;
+    private final int maxFlingVelocity; // px per second
 
     // Builder setters' defaults
     private int backgroundOpacityAnimationDuration = 800; // ms
@@ -55,9 +102,38 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
     private int moveAnimationDuration = 750; // ms
     private int closeAnimationDuration = 220; // ms
     private float growRatio = 0.5f;
+    @RenderMode private int renderMode = RENDER_MODE_SOFTWARE;
+    private int preparationLookahead = PREPARE_ALL; // Pages prepared ahead of and behind the current one
+    private int maxFlingPages = DEFAULT_MAX_FLING_PAGES; // Pages skipped by the fastest fling
+
+    // Targets are tracked once the tour has started, see onTargetsMayHaveMoved()
+    @Px private int trackedWidth; // View size the pages were placed for
+    @Px private int trackedBottom;
+    private boolean relayoutPending = false; // Targets moved while the spotlight was animating
+    @NonNull private final ViewTreeObserver.OnGlobalLayoutListener relayoutListener = new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+            onTargetsMayHaveMoved();
+        }
+    };
+    @NonNull private final ViewTreeObserver.OnScrollChangedListener scrollListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            onTargetsMayHaveMoved();
+        }
+    };
 
-    // Allow gestures only when not moving
-    private boolean isMoving = false;
+    // The view stays invisible until the first page is ready, see start()
+    private boolean startPending = false;
+
+    // The animation rectAnimation is currently running
+    private static final int PHASE_NONE = 0;
+    private static final int PHASE_GROW = 1;
+    private static final int PHASE_PULSE = 2;
+    private static final int PHASE_MOVE = 3;
+    private static final int PHASE_CLOSE = 4;
+    private static final int PHASE_RELAYOUT = 5; // the current page's target moved
+    private int phase = PHASE_NONE;
 
     // Constructors
     public SpotlightView(@NonNull Context context) {
@@ -71,60 +147,184 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
     public SpotlightView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
         spotlight = new SpotlightPaint(context);
+        textPaint = new SpotlightTextPaint(context);
         backgroundPaint = new Paint();
+        overlayMask = new OverlayMask();
+        metrics = new FrameMetricsDelegate();
         offsetDelegate = new OffsetDelegate();
         backgroundOpacityDelegate = new OpacityDelegate();
         swipeTouchListener = new OnSwipeTouchListener(context) {
             @Override
-            public void onSwipeLeft() {
-                super.onSwipeLeft();
-                showNext();
+            public void onSwipeLeft(float velocityX) {
+                super.onSwipeLeft(velocityX);
+                showNext(getFlingPages(velocityX));
             }
 
             @Override
-            public void onSwipeRight() {
-                super.onSwipeRight();
-                showPrevious();
+            public void onSwipeRight(float velocityX) {
+                super.onSwipeRight(velocityX);
+                showPrevious(getFlingPages(velocityX));
             }
 
             @Override
-            public void onClick() {
-                super.onClick();
-                showNext();
+            public void onClick(float x, float y) {
+                super.onClick(x, y);
+                showTargetAt(x, y);
             }
         };
 
         spotlightPadding = Commons.getDimenInPixels(context, R.dimen.spotlight_padding);
         spotlightPulseAnimationSize = Commons.getDimenInPixels(context, R.dimen.spotlight_pulse_animation_size);
+        maxFlingVelocity = ViewConfiguration.get(context).getScaledMaximumFlingVelocity();
+
+        // Pulse is tracked through the animating rectangle itself, only the border and its glow need a margin
+        dirtyRegion = new DirtyRegionDelegate(new DirtyRegionDelegate.DirtyBoundsProvider() {
+            @Override
+            public boolean getDirtyBounds(@NonNull RectF out) {
+                return getSpotlightBounds(out);
+            }
+        }, spotlight.getBorderMargin());
+
+        rectAnimation = new RectAnimationDelegate(this, dirtyRegion, new Commons.AnimationListener() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                onRectAnimationStart();
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                onRectAnimationEnd();
+            }
+        });
+
         init(context);
     }
 
     private void showNext() {
-        if (animatingRectangle == null || isMoving) {
+        navigate(NavigationQueue.NEXT, 1);
+    }
+
+    /**
+     * Skips pages in one move, stopping at the last page. Only a fling on the last page closes the tour.
+     */
+    private void showNext(int pages) {
+        // Before the first page grows, pages are counted from it and from what is already queued
+        final SpotlightViewModel from = animatingRectangle != null ? animatingRectangle : firstTarget;
+        if (from == null || tour == null) {
             return;
         }
 
-        if (animatingRectangle.getNext() == null) {
-            animateClose(animatingRectangle);
+        final int pagesLeft = tour.getCount() - from.getPage() - navigationQueue.getOffset();
+        navigate(NavigationQueue.NEXT, Math.max(1, Math.min(pages, pagesLeft)));
+    }
+
+    private void showPrevious(int pages) {
+        navigate(NavigationQueue.PREVIOUS, pages);
+    }
+
+    /**
+     * A fling skips pages in proportion to its speed: one page for an ordinary swipe,
+     * up to maxFlingPages for the fastest fling the device reports
+     */
+    private int getFlingPages(float velocity) {
+        final float fastFlingVelocity = maxFlingVelocity / 4f;
+        final float speed = Math.abs(velocity);
+
+        if (maxFlingPages <= 1 || speed < fastFlingVelocity) {
+            return 1;
+        }
+
+        final float fraction = (speed - fastFlingVelocity) / (maxFlingVelocity - fastFlingVelocity);
+        return Math.min(maxFlingPages, 2 + (int) (fraction * (maxFlingPages - 1)));
+    }
+
+    /**
+     * Moves pages in direction right away. While the spotlight is growing, moving or relaying out the move is retargeted
+     * from where the spotlight is, counting from the page it is heading to, so quick swipes add up to one move.
+     * Only before the first page grows, when there is nothing to move from, the pages are queued.
+     */
+    private void navigate(@NavigationQueue.Command int direction, int pages) {
+        if (tour == null || !canNavigate()) {
+            return;
+        }
+
+        if (animatingRectangle == null) {
+            navigationQueue.offer(direction, pages);
             return;
         }
 
-        animateMove(animatingRectangle.getNext());
+        moveBy(direction * pages);
+    }
 
+    /**
+     * Applies what was queued before the first page grew
+     */
+    private void applyQueuedNavigation() {
+        final int offset = navigationQueue.drain();
+        if (offset != 0) {
+            moveBy(offset);
+        }
     }
 
-    private void showPrevious() {
-        if (animatingRectangle == null || isMoving) {
+    /**
+     * Moves offset pages from the page the spotlight is on or heading to, or closes if that goes past the last page
+     */
+    private void moveBy(int offset) {
+        if (animatingRectangle == null || tour == null) {
             return;
         }
 
-        if (animatingRectangle.getPrevious() == null) {
+        final int index = animatingRectangle.getPage() - 1 + offset;
+        if (index >= tour.getCount()) {
+            animateClose(animatingRectangle);
+            return;
+        }
+
+        final SpotlightViewModel viewModel = tour.get(Math.max(0, index));
+        if (viewModel != null && viewModel != animatingRectangle) {
+            animateMove(viewModel);
+        }
+    }
+
+    /**
+     * A tap on the target of another page jumps straight to it, any other tap shows the next page
+     */
+    private void showTargetAt(float x, float y) {
+        if (animatingRectangle == null || !canNavigate()) {
             return;
         }
 
-        animateMove(animatingRectangle.getPrevious());
+        final SpotlightViewModel target = targetIndex.findTarget(x, y);
+        if (target != null && target != animatingRectangle) {
+            navigationQueue.clear(); // a jump to a given page replaces the queued swipes
+            animateMove(target);
+        } else {
+            showNext();
+        }
+    }
+
+
+    /**
+     * Navigation is taken at any time but while closing, it retargets a running animation (see navigate())
+     */
+    private boolean canNavigate() {
+        return phase != PHASE_CLOSE;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && getDisplay() != null) {
+            metrics.setRefreshRate(getDisplay().getRefreshRate());
+        }
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        overlayMask.release();
+    }
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
@@ -133,52 +333,383 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
 
     @Override
     public void onGlobalLayout() {
-        if (!offsetDelegate.isOnLayoutRan() || firstTarget == null) {
+        if (!offsetDelegate.isOnLayoutRan() || firstTarget == null || tour == null) {
             return;
         }
 
         Commons.removeOnGlobalLayoutListener(this, this);
 
-        SpotlightViewModel viewModel = firstTarget;
+        if (!snapshot(firstTarget)) {
+            // The first page can never be prepared, close right away instead of showing an empty overlay
+            onCloseEnd();
+            return;
+        }
 
-        int page = 0;
-        while (viewModel != null) {
-            page++;
+        if (getLookahead() == PREPARE_ALL) {
+            // First stage, the only part that has to run on the ui thread: snapshot where every target is.
+            // Pages whose target is gone are tried again when they are reached.
+            for (int i = 0; i < tour.getLoadedCount(); i++) {
+                if (tour.getLoadedAt(i) != firstTarget) {
+                    snapshot(tour.getLoadedAt(i));
+                }
+            }
 
-            final View targetView = viewModel.getTargetView();
-            if (targetView == null) {
-                return;
+            // Second stage: placement and text in the background, in page order so the first page is ready first
+            for (int i = 0; i < tour.getLoadedCount(); i++) {
+                if (tour.getLoadedAt(i).hasTargetSnapshot()) {
+                    prepareAsync(tour.getLoadedAt(i));
+                }
             }
+        } else {
+            prepareAsync(firstTarget);
+            prepareAround(firstTarget);
+        }
 
-            RectF rectF = offsetDelegate.getRectFFromView(targetView, spotlightPadding);
-            viewModel.setMaxWidth(getWidth());
-            viewModel.setMaxBottom(getBottom());
-            viewModel.setPage(page);
-            viewModel.setRectF(rectF);
+        targetIndex.setSize(getWidth(), getHeight());
+        startTracking();
+    }
 
-            viewModel = viewModel.getNext();
+    /**
+     * Until the first page is placed and its text laid out there is nothing to show, so the view is kept invisible
+     * instead of rendering a blank overlay. Only this view waits, the window keeps drawing.
+     */
+    private void start() {
+        if (!startPending || firstTarget == null) {
+            return;
         }
 
+        startPending = false;
+        setVisibility(View.VISIBLE);
         animateBackground(firstTarget);
     }
 
+    private void startTracking() {
+        trackedWidth = getWidth();
+        trackedBottom = getBottom();
+        offsetDelegate.consumeOffsetChanged();
+
+        final ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnGlobalLayoutListener(relayoutListener);
+        observer.addOnScrollChangedListener(scrollListener);
+    }
+
+    private void stopTracking() {
+        Commons.removeOnGlobalLayoutListener(this, relayoutListener);
+        getViewTreeObserver().removeOnScrollChangedListener(scrollListener);
+        relayoutPending = false;
+    }
+
+    /**
+     * Called on every layout and scroll once the tour has started. Places again only the pages whose target moved,
+     * or every page if this view was resized or moved (rotation, keyboard).
+     */
+    private void onTargetsMayHaveMoved() {
+        if (tour == null) {
+            return;
+        }
+
+        if (phase != PHASE_NONE) {
+            // The running animation has its end bounds already, try again once it is over
+            relayoutPending = true;
+            return;
+        }
+
+        relayoutPending = false;
+
+        final boolean viewChanged = offsetDelegate.consumeOffsetChanged()
+                || getWidth() != trackedWidth
+                || getBottom() != trackedBottom;
+        trackedWidth = getWidth();
+        trackedBottom = getBottom();
+        targetIndex.setSize(getWidth(), getHeight());
+
+        for (int i = 0; i < tour.getLoadedCount(); i++) {
+            final SpotlightViewModel viewModel = tour.getLoadedAt(i);
+
+            // Pages that were never prepared are placed when they are reached
+            if (viewModel.hasTargetSnapshot() && (viewChanged || viewModel.hasTargetMoved())) {
+                if (viewModel == animatingRectangle) {
+                    animateRelayout(viewModel);
+                } else if (snapshot(viewModel)) {
+                    prepareAsync(viewModel);
+                }
+            }
+        }
+    }
+
+    /**
+     * First preparation stage, has to run on the ui thread
+     *
+     * @return false if the target view is gone
+     */
+    private boolean snapshot(@NonNull final SpotlightViewModel viewModel) {
+        if (!viewModel.snapshotTarget()) {
+            return false;
+        }
+
+        viewModel.setMaxWidth(getWidth());
+        viewModel.setMaxBottom(getBottom());
+
+        return true;
+    }
+
+    private void prepareAsync(@NonNull final SpotlightViewModel viewModel) {
+        TextLayoutEngine.getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                viewModel.prepare(offsetDelegate, spotlightPadding);
+
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPrepared(viewModel);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Places viewModel right away so the spotlight can head to it. Only its bounds are computed on the ui thread,
+     * its text is laid out in the background if it is not yet and fades in once it is (see onPrepared()).
+     *
+     * @return false if the target view is gone
+     */
+    private boolean place(@NonNull final SpotlightViewModel viewModel) {
+        if (!viewModel.hasTargetSnapshot() && !snapshot(viewModel)) {
+            return false;
+        }
+
+        viewModel.place(offsetDelegate, spotlightPadding);
+        targetIndex.update(viewModel);
+
+        if (!viewModel.isPrepared()) {
+            prepareAsync(viewModel);
+        }
+
+        return true;
+    }
+
+    /**
+     * Paged tours can't prepare every page up front, they keep a window around the current page
+     */
+    private int getLookahead() {
+        if (tour != null && tour.isPaged() && preparationLookahead == PREPARE_ALL) {
+            return DEFAULT_PAGED_LOOKAHEAD;
+        }
+
+        return preparationLookahead;
+    }
+
+    /**
+     * Lazy preparation: prepares in the background the pages within the lookahead of viewModel.
+     * Paged tours also drop the pages outside of it.
+     */
+    private void prepareAround(@NonNull final SpotlightViewModel viewModel) {
+        final int lookahead = getLookahead();
+        if (lookahead == PREPARE_ALL || tour == null) {
+            return;
+        }
+
+        final int index = viewModel.getPage() - 1;
+
+        if (tour.isPaged()) {
+            evictOutside(index - lookahead, index + lookahead);
+        }
+
+        for (int i = 1; i <= lookahead; i++) {
+            final SpotlightViewModel next = tour.get(index + i);
+            if (next != null) {
+                prepareLazily(next);
+            }
+
+            final SpotlightViewModel previous = tour.get(index - i);
+            if (previous != null) {
+                prepareLazily(previous);
+            }
+        }
+    }
+
+    private void evictOutside(int from, int to) {
+        if (tour == null) {
+            return;
+        }
+
+        // Backwards, evicting only shifts the pages after the evicted one
+        for (int i = tour.getLoadedCount() - 1; i >= 0; i--) {
+            final SpotlightViewModel viewModel = tour.getLoadedAt(i);
+            final int index = viewModel.getPage() - 1;
+
+            if ((index < from || index > to) && viewModel != animatingRectangle) {
+                targetIndex.remove(viewModel);
+                viewModel.resetPreparation();
+                tour.evict(index);
+            }
+        }
+    }
+
+    private void prepareLazily(@NonNull final SpotlightViewModel viewModel) {
+        if (!viewModel.hasTargetSnapshot() && snapshot(viewModel)) {
+            prepareAsync(viewModel);
+        }
+    }
+
+    private void onPrepared(@NonNull final SpotlightViewModel viewModel) {
+        if (tour == null || !tour.isLoaded(viewModel)) {
+            return; // Closed or evicted while it was being prepared
+        }
+
+        targetIndex.update(viewModel);
+
+        if (viewModel == firstTarget) {
+            start();
+        }
+
+        if (pendingGrowModel == viewModel) {
+            pendingGrowModel = null;
+            animateGrow(viewModel);
+        }
+
+        if (pendingTextModel == viewModel) {
+            pendingTextModel = null;
+            animateText(viewModel);
+        }
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
+        final long drawStart = metrics.isEnabled() ? System.nanoTime() : 0;
         super.onDraw(canvas);
 
-        drawBackground(canvas);
-        spotlight.drawSpotlightBorder(canvas, animatingRectangle);
-        spotlight.drawSpotlight(canvas, animatingRectangle);
+        if (animatingRectangle == null && backgroundOpacityDelegate.getOpacity() == 0) {
+            return; // nothing visible yet
+        }
+
+        metrics.onFirstFrame(); // only the first call after showing a tour counts
+
+        if (renderMode == RENDER_MODE_MASK) {
+            drawMask(canvas);
+            drawMaskBorder(canvas);
+        } else {
+            drawBackground(canvas);
+            spotlight.drawSpotlightBorder(canvas, animatingRectangle);
+            spotlight.drawSpotlight(canvas, animatingRectangle);
+        }
 
         if (animatingRectangle != null) {
             animatingRectangle.drawText(canvas);
         }
+
+        if (drawStart != 0) {
+            metrics.onDraw(System.nanoTime() - drawStart);
+        }
+    }
+
+    private boolean getSpotlightBounds(@NonNull RectF out) {
+        if (animatingRectangle == null) {
+            return false;
+        }
+
+        out.set(animatingRectangle);
+        animatingRectangle.getTextBounds(textBounds);
+        out.union(textBounds);
+
+        return true;
+    }
+
+    private void onRectAnimationStart() {
+        if (animatingRectangle == null) {
+            return;
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.startPhase(getMetricsPhase(phase));
+        }
+
+        switch (phase) {
+            case PHASE_GROW:
+                onGrowStart();
+                break;
+            case PHASE_MOVE:
+                onMoveStart(animatingRectangle);
+                break;
+            case PHASE_CLOSE:
+                onCloseStart(animatingRectangle);
+                break;
+        }
+    }
+
+    private void onRectAnimationEnd() {
+        // Interrupted animations, and the second end a cancelled animator reports, have no phase left to end
+        if (animatingRectangle == null || phase == PHASE_NONE) {
+            return;
+        }
+
+        final int endedPhase = phase;
+        phase = PHASE_NONE;
+
+        if (metrics.isEnabled()) {
+            metrics.endPhase(getMetricsPhase(endedPhase));
+        }
+
+        switch (endedPhase) {
+            case PHASE_GROW:
+                onGrowEnd(animatingRectangle);
+                break;
+            case PHASE_PULSE:
+                onPulseEnd(animatingRectangle);
+                break;
+            case PHASE_MOVE:
+                onMoveEnd(animatingRectangle);
+                break;
+            case PHASE_CLOSE:
+                onCloseEnd();
+                break;
+            case PHASE_RELAYOUT:
+                onRelayoutEnd();
+                break;
+        }
+
+        if (relayoutPending && phase == PHASE_NONE) {
+            onTargetsMayHaveMoved();
+        }
+    }
+
+    /**
+     * Stops the running grow, pulse, move or relayout without chaining the animation that would follow it
+     */
+    private void interruptRectAnimation() {
+        if (phase == PHASE_NONE) {
+            return;
+        }
+
+        // Interrupted phases are not reported, they did not run to the end
+        metrics.cancelPhase(getMetricsPhase(phase));
+
+        phase = PHASE_NONE;
+        rectAnimation.cancel();
+    }
+
+    @PhaseMetrics.Phase
+    private static int getMetricsPhase(int phase) {
+        switch (phase) {
+            case PHASE_GROW:
+                return PhaseMetrics.PHASE_GROW;
+            case PHASE_PULSE:
+                return PhaseMetrics.PHASE_PULSE;
+            case PHASE_CLOSE:
+                return PhaseMetrics.PHASE_CLOSE;
+            case PHASE_RELAYOUT:
+                return PhaseMetrics.PHASE_RELAYOUT;
+            default:
+                return PhaseMetrics.PHASE_MOVE;
+        }
     }
 
     private void init(@NonNull Context context) {
         setVisibility(View.GONE);
 
-        setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        applyRenderMode();
 
         initBackgroundColor(context);
         initBackgroundPaintColor(context);
@@ -187,22 +718,53 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
         setOnTouchListener(swipeTouchListener);
     }
 
+    private void applyRenderMode() {
+        // The spotlight is punched through the overlay with a CLEAR xfermode, so it always needs an offscreen layer.
+        // A hardware layer keeps that layer on the RenderThread, unless the border glow can only be drawn in software.
+        if (renderMode == RENDER_MODE_MASK && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            // The hole is cut out of the mask bitmap, nothing is cleared on the view's canvas.
+            // The border is clipped to the outside of the hole, hardware canvases clip to paths since JELLY_BEAN_MR2
+            setLayerType(View.LAYER_TYPE_NONE, null);
+        } else if (renderMode == RENDER_MODE_HARDWARE && !spotlight.requiresSoftwareLayer()) {
+            setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        } else {
+            setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        }
+    }
+
     private void initBackgroundColor(@NonNull Context context) {
         setBackgroundColor(ContextCompat.getColor(context, R.color.transparent));
     }
 
     private void initBackgroundPaintColor(@NonNull Context context) {
-        if (backgroundPaint != null) {
-            backgroundPaint.setColor(ContextCompat.getColor(context, R.color.spotlight_overlay_color));
-        }
+        backgroundPaint.setColor(ContextCompat.getColor(context, R.color.spotlight_overlay_color));
     }
 
 
     private void drawBackground(Canvas canvas) {
-        if (backgroundPaint != null) {
-            backgroundPaint.setAlpha(backgroundOpacityDelegate.getOpacity());
-            canvas.drawRect(0, 0, canvas.getWidth(), canvas.getHeight(), backgroundPaint);
+        backgroundPaint.setAlpha(backgroundOpacityDelegate.getOpacity());
+        canvas.drawRect(0, 0, canvas.getWidth(), canvas.getHeight(), backgroundPaint);
+    }
+
+    private void drawMask(Canvas canvas) {
+        overlayMask.setHole(getWidth(), getHeight(), animatingRectangle, spotlight.getRadius(),
+                animatingRectangle != null ? spotlight.getMaskPath(animatingRectangle) : null,
+                spotlight.getSpotlightPathVersion());
+
+        backgroundPaint.setAlpha(backgroundOpacityDelegate.getOpacity());
+        overlayMask.draw(canvas, backgroundPaint);
+    }
+
+    private void drawMaskBorder(Canvas canvas) {
+        if (animatingRectangle == null) {
+            return;
         }
+
+        // Border paints are filled, nothing clears their inside afterwards so it is clipped out
+        canvas.save();
+        spotlight.clipOutSpotlight(canvas, animatingRectangle);
+        spotlight.drawSpotlightBorder(canvas, animatingRectangle);
+        canvas.restore();
     }
 
 
@@ -212,7 +774,9 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
      * ----------------------------------
      */
     private void animateBackground(final @NonNull SpotlightViewModel viewModel) {
-        new AnimationDelegate(new ValueAnimator[]{backgroundOpacityDelegate.getOpacityAnimator()}).animate(this,
+        backgroundAnimation = new AnimationDelegate(new ValueAnimator[]{backgroundOpacityDelegate.getOpacityAnimator()});
+        backgroundAnimation.setMetrics(metrics, PhaseMetrics.PHASE_BACKGROUND);
+        backgroundAnimation.animate(this,
                 new Commons.AnimationListener() {
                     @Override
                     public void onAnimationEnd(Animator animation) {
@@ -222,7 +786,17 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
     }
 
     private void onBackgroundEnd(final @NonNull SpotlightViewModel viewModel) {
-        animateGrow(viewModel);
+        backgroundAnimation = null;
+
+        if (firstTarget == null) {
+            return;
+        }
+
+        if (viewModel.isPrepared()) {
+            animateGrow(viewModel);
+        } else {
+            pendingGrowModel = viewModel;
+        }
     }
 
 
@@ -233,38 +807,17 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
      */
     private void animateGrow(@NonNull final SpotlightViewModel viewModel) {
         animatingRectangle = viewModel;
-        isMoving = true;
-
-        new AnimationDelegate(getGrowAnimators()).animate(this,
-                new Commons.AnimationListener() {
-                    @Override
-                    public void onAnimationStart(Animator animation) {
-                        onGrowStart();
-                    }
-
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        onGrowEnd(viewModel);
-                    }
-                }, spotlightGrowAnimationDuration, new AccelerateDecelerateInterpolator());
-    }
 
-    @NonNull
-    ValueAnimator[] getGrowAnimators() {
-        if (animatingRectangle == null) {
-            return new ValueAnimator[1];
-        }
+        final float growLeft = viewModel.right - viewModel.width() * growRatio;
+        final float growTop = viewModel.bottom - viewModel.height() * growRatio;
+        animationStart.set(growLeft, growTop, growLeft, growTop);
 
-        final ObjectAnimator topAnim = ObjectAnimator.ofFloat(animatingRectangle, "top",
-                animatingRectangle.bottom - animatingRectangle.height() * growRatio, animatingRectangle.top);
-        final ObjectAnimator leftAnim = ObjectAnimator.ofFloat(animatingRectangle, "left",
-                animatingRectangle.right - animatingRectangle.width() * growRatio, animatingRectangle.left);
-        final ObjectAnimator bottomAnim = ObjectAnimator.ofFloat(animatingRectangle, "bottom",
-                animatingRectangle.bottom - animatingRectangle.height() * growRatio, animatingRectangle.bottom);
-        final ObjectAnimator rightAnim = ObjectAnimator.ofFloat(animatingRectangle, "right",
-                animatingRectangle.right - animatingRectangle.width() * growRatio, animatingRectangle.right);
+        phase = PHASE_GROW;
+        rectAnimation.setTween(viewModel, animationStart, viewModel);
+        rectAnimation.start(spotlightGrowAnimationDuration, growInterpolator);
 
-        return new ValueAnimator[]{topAnim, leftAnim, bottomAnim, rightAnim};
+        // Swipes received while the overlay faded in send the growing spotlight on to their page
+        applyQueuedNavigation();
     }
 
     private void onGrowStart() {
@@ -273,7 +826,6 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
 
     private void onGrowEnd(final @NonNull SpotlightViewModel viewModel) {
         animatePulse(viewModel);
-
     }
 
     /*
@@ -282,34 +834,17 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
      * ----------------------------------
      */
     private void animatePulse(@NonNull final SpotlightViewModel viewModel) {
-        new AnimationDelegate(getPulseAnimators()).animate(this,
-                new Commons.AnimationListener() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        onPulseEnd(viewModel);
-                    }
-                }, spotlightPulseAnimationDuration, new OvershootInterpolator());
-
-    }
-
-    @NonNull
-    ValueAnimator[] getPulseAnimators() {
-        if (animatingRectangle == null) {
-            return new ValueAnimator[1];
-        }
-
-        final ObjectAnimator topAnim = ObjectAnimator.ofFloat(animatingRectangle, "top", animatingRectangle.top, animatingRectangle.top - spotlightPulseAnimationSize, animatingRectangle.top);
-        final ObjectAnimator leftAnim = ObjectAnimator.ofFloat(animatingRectangle, "left", animatingRectangle.left, animatingRectangle.left - spotlightPulseAnimationSize, animatingRectangle.left);
-        final ObjectAnimator bottomAnim = ObjectAnimator.ofFloat(animatingRectangle, "bottom", animatingRectangle.bottom, animatingRectangle.bottom + spotlightPulseAnimationSize, animatingRectangle.bottom);
-        final ObjectAnimator rightAnim = ObjectAnimator.ofFloat(animatingRectangle, "right", animatingRectangle.right, animatingRectangle.right + spotlightPulseAnimationSize, animatingRectangle.right);
-
-
-        return new ValueAnimator[]{topAnim, leftAnim, bottomAnim, rightAnim};
+        phase = PHASE_PULSE;
+        rectAnimation.setPulse(viewModel, spotlightPulseAnimationSize);
+        rectAnimation.start(spotlightPulseAnimationDuration, pulseInterpolator);
     }
 
     private void onPulseEnd(@NonNull final SpotlightViewModel viewModel) {
-        isMoving = false;
-        animateText(viewModel);
+        if (viewModel.isPrepared()) {
+            animateText(viewModel);
+        } else {
+            pendingTextModel = viewModel;
+        }
     }
 
     /*
@@ -318,7 +853,9 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
      * ----------------------------------
      */
     private void animateText(final @NonNull SpotlightViewModel viewModel) {
-        new AnimationDelegate(new ValueAnimator[]{viewModel.getTextOpacityAnimation()}).animate(this,
+        textAnimation = new AnimationDelegate(new ValueAnimator[]{textPaint.getTextOpacityAnimation()}, dirtyRegion);
+        textAnimation.setMetrics(metrics, PhaseMetrics.PHASE_TEXT);
+        textAnimation.animate(this,
                 new Commons.AnimationListener() {
                     @Override
                     public void onAnimationStart(Animator animation) {
@@ -332,50 +869,57 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
 
     }
 
+    /**
+     * The text fade shares its animator with textPaint, it has to stop before the paint is reset
+     */
+    private void cancelTextAnimation() {
+        if (textAnimation != null) {
+            textAnimation.cancel();
+            textAnimation = null;
+        }
+    }
+
     /*
      * ----------------------------------
      * Move animation
      * ----------------------------------
      */
-    private void animateMove(@NonNull final SpotlightViewModel viewModel) {
-        isMoving = true;
-
-        new AnimationDelegate(getMoveAnimators(viewModel)).animate(this,
-                new Commons.AnimationListener() {
-                    @Override
-                    public void onAnimationStart(Animator animation) {
-                        onMoveStart(viewModel);
-                    }
-
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        onMoveEnd(viewModel);
-                    }
-                }, moveAnimationDuration, new FastOutSlowInInterpolator());
-    }
-
-    @NonNull
-    private ValueAnimator[] getMoveAnimators(@NonNull final SpotlightViewModel viewModel) {
-        if (animatingRectangle == null) {
-            return new ValueAnimator[1];
+    /**
+     * Moves the spotlight to viewModel. If the spotlight is still growing, pulsing or moving, it heads to viewModel
+     * from where it is drawn and at the speed it is going, so a quick swiper only waits for one transition.
+     *
+     * @return false if viewModel's target is gone
+     */
+    private boolean animateMove(@NonNull final SpotlightViewModel viewModel) {
+        final SpotlightViewModel current = animatingRectangle;
+        if (current == null || !place(viewModel)) {
+            return false;
         }
 
-        final SpotlightViewModel tempViewModel = animatingRectangle;
-        animatingRectangle = viewModel;
-
-        final ObjectAnimator topAnim = ObjectAnimator.ofFloat(animatingRectangle, "top", tempViewModel.top, viewModel.top);
-        final ObjectAnimator leftAnim = ObjectAnimator.ofFloat(animatingRectangle, "left", tempViewModel.left, viewModel.left);
-        final ObjectAnimator bottomAnim = ObjectAnimator.ofFloat(animatingRectangle, "bottom", tempViewModel.bottom, viewModel.bottom);
-        final ObjectAnimator rightAnim = ObjectAnimator.ofFloat(animatingRectangle, "right", tempViewModel.right, viewModel.right);
+        if (phase == PHASE_NONE) {
+            rectAnimation.setTween(viewModel, current, viewModel);
+            phase = PHASE_MOVE;
+            animatingRectangle = viewModel;
+            rectAnimation.start(moveAnimationDuration, moveInterpolator);
+        } else {
+            rectAnimation.setRetarget(viewModel, current, viewModel);
+            interruptRectAnimation();
+            current.restoreBounds();
+
+            phase = PHASE_MOVE;
+            animatingRectangle = viewModel;
+            rectAnimation.start(moveAnimationDuration, retargetInterpolator);
+        }
 
-        return new ValueAnimator[]{topAnim, leftAnim, bottomAnim, rightAnim};
+        prepareAround(viewModel);
+        return true;
     }
 
     private void onMoveStart(@NonNull final SpotlightViewModel viewModel) {
-        if (animatingRectangle != null) {
-            animatingRectangle.onBeforePageChanged();
-        }
-        viewModel.resetTextPaint();
+        pendingTextModel = null;
+        viewModel.onBeforePageChanged();
+        cancelTextAnimation();
+        textPaint.reset();
 
     }
 
@@ -385,81 +929,152 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
 
     /*
      * ----------------------------------
-     * Close animation
+     * Relayout animation
      * ----------------------------------
      */
-    public void animateClose(@NonNull final SpotlightViewModel viewModel) {
-        isMoving = true;
+    private void animateRelayout(@NonNull final SpotlightViewModel viewModel) {
+        animationStart.set(viewModel); // where it is drawn now
 
-        new AnimationDelegate(getCloseAnimators()).animate(this,
-                new Commons.AnimationListener() {
-                    @Override
-                    public void onAnimationStart(Animator animation) {
-                        onCloseStart(viewModel);
-                    }
+        if (!snapshot(viewModel)) {
+            return;
+        }
 
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        onCloseEnd();
-                    }
-                }, closeAnimationDuration, new DecelerateInterpolator());
+        // Moves viewModel to its new bounds, text is only laid out again if the space around it changed
+        viewModel.prepare(offsetDelegate, spotlightPadding);
+        targetIndex.update(viewModel);
 
+        phase = PHASE_RELAYOUT;
+        rectAnimation.setTween(viewModel, animationStart, viewModel);
+        rectAnimation.start(moveAnimationDuration, moveInterpolator);
     }
 
-    @NonNull
-    private ValueAnimator[] getCloseAnimators() {
-        if (animatingRectangle == null) {
-            return new ValueAnimator[1];
+    private void onRelayoutEnd() {
+
+    }
+
+    /*
+     * ----------------------------------
+     * Close animation
+     * ----------------------------------
+     */
+    public void animateClose(@NonNull final SpotlightViewModel viewModel) {
+        if (phase == PHASE_CLOSE) {
+            return;
         }
 
-        final ObjectAnimator topAnim = ObjectAnimator.ofFloat(animatingRectangle, "top", animatingRectangle.top, 0);
-        final ObjectAnimator leftAnim = ObjectAnimator.ofFloat(animatingRectangle, "left", animatingRectangle.left, 0);
-        final ObjectAnimator bottomAnim = ObjectAnimator.ofFloat(animatingRectangle, "bottom", animatingRectangle.bottom, getHeight());
-        final ObjectAnimator rightAnim = ObjectAnimator.ofFloat(animatingRectangle, "right", animatingRectangle.right, getWidth());
-        final ValueAnimator radiusAnim = ValueAnimator.ofInt(spotlight.getRadius(), 0);
+        // Closes from where the spotlight is drawn now, instead of starting next to the running animation
+        interruptRectAnimation();
+        navigationQueue.clear();
+        // A page prepared from now on must not grow or fade its text in on a closing tour
+        pendingGrowModel = null;
+        pendingTextModel = null;
+
+        animationStart.set(0, 0, getWidth(), getHeight());
 
-        return new ValueAnimator[]{topAnim, leftAnim, bottomAnim, rightAnim, radiusAnim};
+        phase = PHASE_CLOSE;
+        rectAnimation.setTween(viewModel, viewModel, animationStart);
+        rectAnimation.start(closeAnimationDuration, closeInterpolator);
     }
 
     private void onCloseStart(@NonNull final SpotlightViewModel viewModel) {
-        viewModel.resetTextPaint();
+        cancelTextAnimation();
+        textPaint.reset();
 //        spotlight.setBorderPaint(null);
 //        spotlight.setBorderGradientPaint(null);
     }
 
     private void onCloseEnd() {
-        isMoving = false;
         setVisibility(View.GONE);
         reset();
+
+        if (pool != null) {
+            pool.recycle(this);
+        }
     }
 
+    /**
+     * Brings the view back to the state it was constructed in (builder options are kept),
+     * so that it can show another tour
+     */
     private void reset() {
+        // Forget the tour first, cancelled animations end through the same callbacks as finished ones
+        if (tour != null) {
+            for (int i = 0; i < tour.getLoadedCount(); i++) {
+                tour.getLoadedAt(i).resetPreparation();
+            }
+        }
+
+        tour = null;
+        firstTarget = null;
         animatingRectangle = null;
-        backgroundPaint = null;
+        pendingGrowModel = null;
+        pendingTextModel = null;
+        phase = PHASE_NONE;
+        navigationQueue.clear();
+
+        if (backgroundAnimation != null) {
+            backgroundAnimation.cancel();
+            backgroundAnimation = null;
+        }
+
+        cancelTextAnimation();
+
+        rectAnimation.cancel();
+        metrics.cancel();
+        targetIndex.clear();
+        Commons.removeOnGlobalLayoutListener(this, this);
+        startPending = false;
+        stopTracking();
+
+        dirtyRegion.reset();
+        backgroundOpacityDelegate.reset();
+        textPaint.reset();
         spotlight.setRadius(getContext());
     }
 
+    /**
+     * Stops the tour the view is showing (if any), resets it and removes it from its parent.
+     * The view can show another tour afterwards.
+     */
+    public void recycle() {
+        setVisibility(View.GONE);
+        reset();
+
+        final ViewParent parent = getParent();
+        if (parent instanceof ViewGroup) {
+            ((ViewGroup) parent).removeView(this);
+        }
+    }
+
+    void setPool(@Nullable SpotlightViewPool pool) {
+        this.pool = pool;
+    }
+
 
     private void setModels(@Nullable List<SpotlightViewModel> targets) {
         if (targets == null || targets.size() <= 0) {
             return;
         }
 
-        final int size = targets.size();
-        for (int i = 0; i < size; i++) {
-            final SpotlightViewModel viewModel = targets.get(i);
-
-            viewModel.setNumberOfPages(size);
+        setTour(new SpotlightTour(targets, textPaint));
+    }
 
-            if (i <= size - 2) {
-                viewModel.setNext(targets.get(i + 1));
-            }
+    private void setTourSource(@NonNull SpotlightTourSource source) {
+        if (source.getCount() <= 0) {
+            return;
         }
 
-        this.firstTarget = targets.get(0);
+        setTour(new SpotlightTour(source, textPaint));
+    }
 
+    private void setTour(@NonNull SpotlightTour tour) {
+        this.tour = tour;
+        this.firstTarget = tour.get(0);
+        metrics.onShowRequested();
+
+        startPending = true;
         getViewTreeObserver().addOnGlobalLayoutListener(this);
-        setVisibility(View.VISIBLE);
+        setVisibility(View.INVISIBLE); // laid out, so targets can be placed relative to it, but not drawn until start()
     }
 
     /*
@@ -472,17 +1087,86 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
     }
 
     public static SpotlightView addSpotlightView(@NonNull Activity activity, @Nullable SpotlightView spotlightView, @NonNull List<SpotlightViewModel> models) {
+        spotlightView = attachSpotlightView(activity, spotlightView);
+        spotlightView.setModels(models);
+
+        return spotlightView;
+    }
+
+    /**
+     * Shows a tour whose pages are asked from source as the user gets to them. Only the pages within
+     * the preparation lookahead of the current one are kept (2 unless set with the Builder).
+     */
+    public static SpotlightView addSpotlightView(@NonNull Activity activity, @Nullable SpotlightView spotlightView, @NonNull SpotlightTourSource source) {
+        spotlightView = attachSpotlightView(activity, spotlightView);
+        spotlightView.setTourSource(source);
+
+        return spotlightView;
+    }
+
+    @NonNull
+    private static SpotlightView attachSpotlightView(@NonNull Activity activity, @Nullable SpotlightView spotlightView) {
         if (spotlightView == null) {
             spotlightView = new SpotlightView(activity);
+        } else if (spotlightView.getParent() != null) {
+            // Reused while showing a tour, start over
+            spotlightView.recycle();
         }
 
         final ViewGroup rootLayout = activity.findViewById(android.R.id.content);
         rootLayout.addView(spotlightView);
-        spotlightView.setModels(models);
 
         return spotlightView;
     }
 
+    /**
+     * @param listener: receives the frame timings of every animation phase once it ends, null stops measuring
+     */
+    public void setMetricsListener(@Nullable FrameMetricsDelegate.Listener listener) {
+        metrics.setListener(listener);
+    }
+
+    /**
+     * Moves the spotlight straight from the current page to the page at index, skipping the pages in between.
+     * An animation already running (grow, pulse, move) is interrupted and the spotlight heads to the page from where it is.
+     *
+     * @param index: 0 based, in the order the models were given
+     * @return false if the tour is not showing or is closing, index is out of range or the current page,
+     * or the page's target view is gone
+     */
+    public boolean showPage(int index) {
+        if (animatingRectangle == null || tour == null || !canNavigate()) {
+            return false;
+        }
+
+        final SpotlightViewModel viewModel = tour.get(index);
+        if (viewModel == null || viewModel == animatingRectangle) {
+            return false;
+        }
+
+        navigationQueue.clear();
+        return animateMove(viewModel);
+    }
+
+    /**
+     * Same as {@link #showPage(int)} for the page that highlights targetView.
+     * Tours from a {@link SpotlightTourSource} only find the pages that are loaded.
+     */
+    public boolean showTarget(@NonNull View targetView) {
+        return tour != null && showPage(tour.indexOf(targetView));
+    }
+
+    /**
+     * @return index of the page being shown, -1 if the tour is not showing
+     */
+    public int getCurrentPage() {
+        return animatingRectangle != null ? animatingRectangle.getPage() - 1 : -1;
+    }
+
+    public int getPageCount() {
+        return tour != null ? tour.getCount() : 0;
+    }
+
     public boolean isClosed() {
         return animatingRectangle == null;
     }
@@ -540,9 +1224,51 @@ public class SpotlightView extends ViewGroup implements ViewTreeObserver.OnGloba
             return this;
         }
 
+        public Builder setRenderMode(@RenderMode int renderMode) {
+            spotlightView.renderMode = renderMode;
+            spotlightView.applyRenderMode();
+            return this;
+        }
+
+        /**
+         * @param shape: outline of the spotlight for the pages that don't set their own, a round rect by default
+         */
+        public Builder setShape(@NonNull SpotlightShape shape) {
+            spotlightView.spotlight.setShape(shape);
+            spotlightView.applyRenderMode();
+            return this;
+        }
+
+        /**
+         * @param maxFlingPages: pages skipped in one move by the fastest fling, 1 moves a page per swipe whatever its speed.
+         *                     Defaults to 5, at most 8
+         */
+        public Builder setMaxFlingPages(int maxFlingPages) {
+            spotlightView.maxFlingPages = Math.max(1, Math.min(MAX_QUEUED_PAGES, maxFlingPages));
+            return this;
+        }
+
+        /**
+         * @param preparationLookahead: how many pages ahead of and behind the current one are prepared in advance,
+         *                            the rest are prepared when navigated to. Defaults to {@link #PREPARE_ALL}
+         */
+        public Builder setPreparationLookahead(int preparationLookahead) {
+            spotlightView.preparationLookahead = preparationLookahead < 0 ? PREPARE_ALL : preparationLookahead;
+            return this;
+        }
+
+        public Builder setMetricsListener(@Nullable FrameMetricsDelegate.Listener listener) {
+            spotlightView.setMetricsListener(listener);
+            return this;
+        }
+
         @NonNull
         public SpotlightView build() {
             return spotlightView;
         }
     }
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({RENDER_MODE_SOFTWARE, RENDER_MODE_HARDWARE, RENDER_MODE_MASK})
+    public @interface RenderMode {}
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.mitsest.spotlightviewpager.view;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps closed {@link SpotlightView}s around so that showing another tour skips inflating a new view,
+ * allocating its paints and animators and building its layer.
+ * Views obtained from the pool go back to it on their own once closed.
+ *
+ * Pooled views hold on to the context they were created with, call {@link #clear()} when it is destroyed.
+ */
+public class SpotlightViewPool {
+    private final int maxSize;
+    @NonNull private final List<SpotlightView> views;
+
+    public SpotlightViewPool(int maxSize) {
+        this.maxSize = maxSize;
+        this.views = new ArrayList<>(maxSize);
+    }
+
+    /**
+     * @return a pooled view created with the same context, or a new one
+     */
+    @NonNull
+    public SpotlightView obtain(@NonNull Context context) {
+        for (int i = views.size() - 1; i >= 0; i--) {
+            if (views.get(i).getContext() == context) {
+                final SpotlightView spotlightView = views.remove(i);
+                spotlightView.setPool(this);
+                return spotlightView;
+            }
+        }
+
+        final SpotlightView spotlightView = new SpotlightView(context);
+        spotlightView.setPool(this);
+        return spotlightView;
+    }
+
+    /**
+     * Resets the view and keeps it for a later {@link #obtain(Context)}. Views built elsewhere
+     * (e.g. by {@link SpotlightView.Builder}) may be added too, they keep their options.
+     */
+    public void recycle(@NonNull SpotlightView spotlightView) {
+        spotlightView.setPool(null);
+        spotlightView.recycle();
+
+        if (views.size() < maxSize && !views.contains(spotlightView)) {
+            views.add(spotlightView);
+        }
+    }
+
+    public void clear() {
+        views.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mitsest.spotlightviewpager.animation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The frame math FrameMetricsDelegate reports with: nearest rank percentiles and dropped frames
+ */
+public class FrameMetricsDelegateTest {
+    private static final long FRAME_INTERVAL = 16666667; // ns, 60hz
+
+    @Test
+    public void percentileIsNearestRank() {
+        final long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        assertEquals(5, FrameMetricsDelegate.getPercentile(sorted, 10, 50));
+        assertEquals(9, FrameMetricsDelegate.getPercentile(sorted, 10, 90));
+        assertEquals(10, FrameMetricsDelegate.getPercentile(sorted, 10, 99));
+        assertEquals(1, FrameMetricsDelegate.getPercentile(sorted, 10, 1));
+    }
+
+    @Test
+    public void percentileOnlyReadsCountedFrames() {
+        // Buffers are reused, the frames after count belong to an earlier phase
+        final long[] sorted = {1, 2, 3, 100, 100};
+
+        assertEquals(3, FrameMetricsDelegate.getPercentile(sorted, 3, 99));
+        assertEquals(2, FrameMetricsDelegate.getPercentile(sorted, 3, 50));
+    }
+
+    @Test
+    public void percentileOfNoFramesIsZero() {
+        assertEquals(0, FrameMetricsDelegate.getPercentile(new long[4], 0, 50));
+    }
+
+    @Test
+    public void frameOnTimeDropsNothing() {
+        assertEquals(0, FrameMetricsDelegate.getDroppedFrames(FRAME_INTERVAL, FRAME_INTERVAL));
+        assertEquals(0, FrameMetricsDelegate.getDroppedFrames(FRAME_INTERVAL / 2, FRAME_INTERVAL));
+        // vsync jitter is rounded away
+        assertEquals(0, FrameMetricsDelegate.getDroppedFrames(FRAME_INTERVAL * 14 / 10, FRAME_INTERVAL));
+    }
+
+    @Test
+    public void longFrameDropsTheIntervalsItSpans() {
+        assertEquals(1, FrameMetricsDelegate.getDroppedFrames(FRAME_INTERVAL * 2, FRAME_INTERVAL));
+        assertEquals(1, FrameMetricsDelegate.getDroppedFrames(FRAME_INTERVAL * 16 / 10, FRAME_INTERVAL));
+        assertEquals(3, FrameMetricsDelegate.getDroppedFrames(FRAME_INTERVAL * 4, FRAME_INTERVAL));
+    }
+
+    @Test
+    public void droppedFramesFollowTheRefreshRate() {
+        final long interval120hz = 8333333;
+
+        assertEquals(1, FrameMetricsDelegate.getDroppedFrames(FRAME_INTERVAL, interval120hz));
+    }
+}
@@ -0,0 +1,103 @@
+package com.mitsest.spotlightviewpager.model;
+
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Hit testing through the grid SpotlightView uses to find the page under a tap
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class SpotlightTargetIndexTest {
+    private static final int WIDTH = 1000; // px
+    private static final int HEIGHT = 2000; // px
+
+    private SpotlightTargetIndex index;
+
+    @Before
+    public void setUp() {
+        index = new SpotlightTargetIndex();
+        index.setSize(WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void findsTheInnermostTarget() {
+        final SpotlightViewModel outer = createPage(0, 0, 500, 500);
+        final SpotlightViewModel inner = createPage(100, 100, 200, 200);
+        index.update(outer);
+        index.update(inner);
+
+        assertSame(inner, index.findTarget(150, 150));
+        assertSame(outer, index.findTarget(300, 300));
+        assertNull(index.findTarget(600, 600));
+    }
+
+    @Test
+    public void clampsTargetsPartlyOffScreen() {
+        final SpotlightViewModel topLeft = createPage(-100, -100, 50, 50);
+        final SpotlightViewModel bottomRight = createPage(950, 1950, 1200, 2200);
+        index.update(topLeft);
+        index.update(bottomRight);
+
+        assertSame(topLeft, index.findTarget(10, 10));
+        assertSame(bottomRight, index.findTarget(990, 1990));
+        assertNull(index.findTarget(-10, -10));
+        assertNull(index.findTarget(1100, 2100));
+    }
+
+    @Test
+    public void movesAPageBetweenCells() {
+        final SpotlightViewModel page = createPage(0, 0, 100, 100);
+        index.update(page);
+
+        page.setRectF(new RectF(800, 1800, 900, 1900));
+        index.update(page);
+
+        assertNull(index.findTarget(50, 50));
+        assertSame(page, index.findTarget(850, 1850));
+    }
+
+    @Test
+    public void removesAPage() {
+        final SpotlightViewModel page = createPage(0, 0, 100, 100);
+        index.update(page);
+        index.remove(page);
+
+        assertNull(index.findTarget(50, 50));
+    }
+
+    @Test
+    public void rebuildsOnResize() {
+        final SpotlightViewModel page = createPage(1500, 100, 1600, 200);
+        index.update(page);
+
+        // Off screen, the page is clamped to the last column but a tap there is outside the view
+        assertNull(index.findTarget(1550, 150));
+        assertNull(index.findTarget(990, 150));
+
+        index.setSize(WIDTH * 2, HEIGHT);
+
+        assertSame(page, index.findTarget(1550, 150));
+        assertNull(index.findTarget(990, 150));
+    }
+
+    @NonNull
+    private static SpotlightViewModel createPage(float left, float top, float right, float bottom) {
+        final SpotlightViewModel page = new SpotlightViewModel("Title", new SubtitleModel("Subtitle", 1),
+                new View(RuntimeEnvironment.application));
+        page.setRectF(new RectF(left, top, right, bottom));
+
+        return page;
+    }
+}
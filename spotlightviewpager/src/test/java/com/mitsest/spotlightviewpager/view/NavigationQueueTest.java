@@ -0,0 +1,67 @@
+package com.mitsest.spotlightviewpager.view;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Next/previous commands that arrive before the first grow, coalesced into one page offset
+ */
+public class NavigationQueueTest {
+    private static final int MAX_OFFSET = 8;
+
+    private NavigationQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new NavigationQueue(MAX_OFFSET);
+    }
+
+    @Test
+    public void coalescesIntoOneOffset() {
+        assertTrue(queue.offer(NavigationQueue.NEXT, 1));
+        assertTrue(queue.offer(NavigationQueue.NEXT, 1));
+        assertTrue(queue.offer(NavigationQueue.NEXT, 1));
+        assertTrue(queue.offer(NavigationQueue.PREVIOUS, 1));
+
+        assertEquals(2, queue.getOffset());
+        assertEquals(2, queue.drain());
+        assertEquals(0, queue.drain());
+    }
+
+    @Test
+    public void nextAndPreviousCancelOut() {
+        queue.offer(NavigationQueue.NEXT, 3);
+        queue.offer(NavigationQueue.PREVIOUS, 3);
+
+        assertEquals(0, queue.drain());
+    }
+
+    @Test
+    public void dropsPagesPastTheMaxOffset() {
+        assertTrue(queue.offer(NavigationQueue.NEXT, 5));
+        assertFalse(queue.offer(NavigationQueue.NEXT, 5));
+        assertEquals(MAX_OFFSET, queue.getOffset());
+
+        // Dropped pages are not owed back
+        assertTrue(queue.offer(NavigationQueue.PREVIOUS, 1));
+        assertEquals(MAX_OFFSET - 1, queue.getOffset());
+    }
+
+    @Test
+    public void clampsBackwardsToo() {
+        assertFalse(queue.offer(NavigationQueue.PREVIOUS, MAX_OFFSET + 1));
+        assertEquals(-MAX_OFFSET, queue.drain());
+    }
+
+    @Test
+    public void clearDropsEverything() {
+        queue.offer(NavigationQueue.NEXT, 2);
+        queue.clear();
+
+        assertEquals(0, queue.getOffset());
+    }
+}